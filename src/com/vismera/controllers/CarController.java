@@ -1,32 +1,102 @@
 package com.vismera.controllers;
 
+import com.vismera.dao.CarDAO;
+import com.vismera.dao.DatabaseConnection;
 import com.vismera.models.Car;
+import com.vismera.models.LoanCalculation;
+import com.vismera.utils.CarCatalog;
+import com.vismera.utils.CarCatalogChange;
+import com.vismera.utils.CarFacetIndex;
+import com.vismera.utils.CarFacets;
+import com.vismera.utils.CarImporter;
+import com.vismera.utils.CarSearchResult;
 
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controller for managing car data.
- * Uses in-memory sample data for the calculator.
+ * Uses in-memory sample data for the calculator by default. Starting the
+ * application with -Dvismera.catalog.database=true switches to the persistent
+ * H2 catalog, where every filter runs as an indexed SQL query. In memory
+ * mode, -Dvismera.catalog.feed=path/to/inventory.csv loads the catalog from
+ * a dealer feed in the background and {@link #refreshData()} reloads it.
  * 
  * @author Vismerá Inc.
  */
 public class CarController {
     
     private static CarController instance;
-    private List<Car> cars;
+    private static final int FUZZY_RESULT_LIMIT = 100;
+    private static final double MAX_CAR_PRICE = 1e13; // DECIMAL(15,2) in the catalog table
+    private static final long FUZZY_BUDGET_MICROS = Long.getLong("vismera.search.fuzzyBudgetMicros", 2000);
+    private volatile CarCatalog catalog = CarCatalog.empty();
+    private final Object writeLock = new Object();
+    private final Object importLock = new Object(); // database mode: one import's temporary IDs at a time
+    private final boolean useDatabaseMode;
+    private CarDAO carDAO;
+    private long seenVersion; // database mode: latest write reported to listeners
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Receives catalog changes. Called on the thread that made the change;
+     * Swing views must move their updates to the event dispatch thread.
+     */
+    public interface CatalogListener {
+        void catalogChanged(CarCatalogChange change);
+    }
 
     private CarController() {
-        initializeSampleData();
+        List<Car> sampleCars = createSampleData();
+        useDatabaseMode = Boolean.getBoolean("vismera.catalog.database") && initializeDatabase(sampleCars);
+        if (!useDatabaseMode) {
+            catalog = new CarCatalog(sampleCars);
+            if (System.getProperty("vismera.catalog.feed") != null) {
+                refreshData();
+            }
+        }
+    }
+
+    /**
+     * Open the H2 catalog, seeding it with the sample cars when empty.
+     * Falls back to in-memory data if the database cannot be opened.
+     */
+    private boolean initializeDatabase(List<Car> sampleCars) {
+        try {
+            carDAO = new CarDAO(DatabaseConnection.getInstance());
+            carDAO.createSchema();
+            if (carDAO.count() == 0) {
+                carDAO.saveAll(sampleCars);
+            }
+            seenVersion = carDAO.currentVersion();
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error opening car catalog database, using sample data: " + e.getMessage());
+            carDAO = null;
+            return false;
+        }
     }
 
     /**
-     * Initialize sample car data for the calculator
+     * Create sample car data for the calculator
      */
-    private void initializeSampleData() {
-        cars = new ArrayList<>(Arrays.asList(
+    private static List<Car> createSampleData() {
+        return new ArrayList<>(Arrays.asList(
             // Sedans
             new Car(1, "Toyota", "Camry", 2024, "Sedan", "Midnight Black", 35, 1850000.00, ""),
             new Car(2, "Honda", "Civic", 2024, "Sedan", "Pearl White", 38, 1350000.00, ""),
@@ -72,9 +142,10 @@ public class CarController {
     }
 
     /**
-     * Get singleton instance
+     * Get singleton instance. Synchronized because the first call usually
+     * comes from the cars panel's background loader.
      */
-    public static CarController getInstance() {
+    public static synchronized CarController getInstance() {
         if (instance == null) {
             instance = new CarController();
         }
@@ -82,10 +153,15 @@ public class CarController {
     }
 
     /**
-     * Get all cars
+     * Get all cars. In memory mode this is a read-only view of the current
+     * catalog snapshot, shared by all callers without copying; in database
+     * mode the list reads its rows a page at a time as they are asked for.
      */
     public List<Car> getAllCars() {
-        return new ArrayList<>(cars);
+        if (useDatabaseMode) {
+            return carDAO.findAll();
+        }
+        return catalog.getCars();
     }
     
     /**
@@ -96,34 +172,113 @@ public class CarController {
     }
 
     /**
-     * Search cars by make, model, or category
+     * Search cars by make, model, category, color, or year.
+     * Uses the n-gram index built when the catalog loaded. In memory mode a
+     * query with no exact matches falls back to typo-tolerant search, so
+     * "Mitsubsihi Monterro" still finds the Montero Sport.
      */
     public List<Car> searchCars(String query) {
         if (query == null || query.trim().isEmpty()) {
             return getAllCars();
         }
-        
-        String lowerQuery = query.toLowerCase().trim();
-        
-        return cars.stream()
-            .filter(car -> 
-                car.getMake().toLowerCase().contains(lowerQuery) ||
-                car.getModel().toLowerCase().contains(lowerQuery) ||
-                (car.getCategory() != null && car.getCategory().toLowerCase().contains(lowerQuery)) ||
-                (car.getColor() != null && car.getColor().toLowerCase().contains(lowerQuery)) ||
-                String.valueOf(car.getYear()).contains(lowerQuery)
-            )
-            .collect(Collectors.toList());
+        if (useDatabaseMode) {
+            return carDAO.search(query.toLowerCase().trim());
+        }
+        CarCatalog snapshot = catalog;
+        List<Car> results = snapshot.getSearchIndex().search(query);
+        if (results.isEmpty()) {
+            return snapshot.getFuzzyIndex().search(query, FUZZY_RESULT_LIMIT, FUZZY_BUDGET_MICROS * 1000);
+        }
+        return results;
+    }
+
+    /**
+     * Typo-tolerant search, best matches first (memory mode; database mode
+     * falls back to the exact search)
+     * @param limit maximum number of cars to return
+     * @param budgetMicros time budget; the best results found when it runs out are returned
+     */
+    public List<Car> fuzzySearchCars(String query, int limit, long budgetMicros) {
+        if (isBlank(query)) {
+            return getAllCars();
+        }
+        if (useDatabaseMode) {
+            return carDAO.search(query.toLowerCase().trim());
+        }
+        return catalog.getFuzzyIndex().search(query, limit, budgetMicros * 1000);
+    }
+
+    /**
+     * Search cars and narrow the result to a category ("All" or null for any).
+     * Memory mode intersects the search result with the category's row bitset.
+     */
+    public List<Car> searchCars(String query, String category) {
+        boolean anyCategory = category == null || category.equalsIgnoreCase("All");
+        if (anyCategory) {
+            return searchCars(query);
+        }
+        if (useDatabaseMode) {
+            return carDAO.search(isBlank(query) ? null : query.toLowerCase().trim(), category);
+        }
+        CarCatalog snapshot = catalog;
+        CarFacetIndex facetIndex = snapshot.getFacetIndex();
+        long[] mask = searchMask(snapshot, query);
+        CarFacetIndex.and(mask, facetIndex.mask(CarFacets.Dimension.CATEGORY, category));
+        return toCars(snapshot, facetIndex.toRows(mask));
+    }
+
+    /**
+     * Get facet counts (category, make, year, price bucket) for the cars
+     * matching a search query, or for the whole catalog when the query is blank
+     */
+    public CarFacets getFacets(String query) {
+        if (useDatabaseMode) {
+            return carDAO.findFacets(isBlank(query) ? null : query.toLowerCase().trim());
+        }
+        CarCatalog snapshot = catalog;
+        if (isBlank(query)) {
+            return snapshot.getFacets();
+        }
+        return snapshot.getFacetIndex().count(searchMask(snapshot, query));
+    }
+
+    /**
+     * Search cars, narrow them to a category ("All" or null for any) and count
+     * the facets of the whole search in one call. Memory mode reads one
+     * snapshot and runs the search, including any typo-tolerant fallback and
+     * its time budget, only once, so the counts always match the cars.
+     */
+    public CarSearchResult searchWithFacets(String query, String category) {
+        boolean anyCategory = category == null || category.equalsIgnoreCase("All");
+        if (useDatabaseMode) {
+            return new CarSearchResult(getFacets(query), searchCars(query, category));
+        }
+        CarCatalog snapshot = catalog;
+        CarFacetIndex facetIndex = snapshot.getFacetIndex();
+        if (isBlank(query)) {
+            List<Car> cars = anyCategory ? snapshot.getCars()
+                : toCars(snapshot, facetIndex.toRows(facetIndex.mask(CarFacets.Dimension.CATEGORY, category)));
+            return new CarSearchResult(snapshot.getFacets(), cars);
+        }
+        int[] rows = searchRows(snapshot, query);
+        long[] mask = facetIndex.maskOf(rows);
+        CarFacets facets = facetIndex.count(mask);
+        if (anyCategory) {
+            // Kept in search order, so typo-tolerant matches stay best first
+            return new CarSearchResult(facets, toCars(snapshot, rows));
+        }
+        CarFacetIndex.and(mask, facetIndex.mask(CarFacets.Dimension.CATEGORY, category));
+        return new CarSearchResult(facets, toCars(snapshot, facetIndex.toRows(mask)));
     }
 
     /**
      * Get a car by its ID
      */
     public Car getCarById(int id) {
-        return cars.stream()
-            .filter(car -> car.getId() == id)
-            .findFirst()
-            .orElse(null);
+        if (useDatabaseMode) {
+            return carDAO.findById(id);
+        }
+        return catalog.getById(id);
     }
 
     /**
@@ -133,61 +288,412 @@ public class CarController {
         if (category == null || category.equalsIgnoreCase("All")) {
             return getAllCars();
         }
-        return cars.stream()
-            .filter(car -> car.getCategory() != null && car.getCategory().equalsIgnoreCase(category))
-            .collect(Collectors.toList());
+        if (useDatabaseMode) {
+            return carDAO.findByCategory(category);
+        }
+        CarCatalog snapshot = catalog;
+        CarFacetIndex facetIndex = snapshot.getFacetIndex();
+        return toCars(snapshot, facetIndex.toRows(facetIndex.mask(CarFacets.Dimension.CATEGORY, category)));
     }
 
     /**
-     * Get cars within a price range
+     * Get cars within a price range (inclusive), cheapest first
      */
     public List<Car> getCarsByPriceRange(double minPrice, double maxPrice) {
-        return cars.stream()
-            .filter(car -> car.getPrice() >= minPrice && car.getPrice() <= maxPrice)
-            .collect(Collectors.toList());
+        if (useDatabaseMode) {
+            return carDAO.findByPriceRange(minPrice, maxPrice);
+        }
+        return catalog.getPriceIndex().findInRange(minPrice, maxPrice);
+    }
+
+    /**
+     * Get the cheapest cars in a category ("All" for the whole catalog)
+     */
+    public List<Car> getCheapestCars(String category, int limit) {
+        if (useDatabaseMode) {
+            return carDAO.findCheapest(category, limit);
+        }
+        return catalog.getPriceIndex().findCheapest(category, limit);
+    }
+
+    /**
+     * Get the car whose price is closest to the given price, or null for an
+     * empty catalog or a NaN price
+     */
+    public Car getCarNearestPrice(double price) {
+        if (useDatabaseMode) {
+            return carDAO.findNearestPrice(price);
+        }
+        return catalog.getPriceIndex().findNearest(price);
+    }
+
+    /**
+     * Get the cars whose monthly payment fits a budget under the given loan
+     * terms (tax, registration fee, down payment, trade-in, rate, term and
+     * compounding, as entered on the calculator; its car price is ignored),
+     * cheapest first.
+     * Payment only grows with price, so the formula is inverted once into a
+     * price limit and answered with the price index instead of a loan
+     * calculation per car. Cars right at the limit are checked with the
+     * exact payment formula to absorb rounding.
+     */
+    public List<Car> getAffordableCars(double monthlyBudget, LoanCalculation terms) {
+        double maxPrice = terms.calculateMaxCarPrice(monthlyBudget);
+        if (maxPrice < 0) {
+            return Collections.emptyList();
+        }
+        double searchMax = Math.min(MAX_CAR_PRICE, maxPrice + Math.max(0.01, maxPrice * 1e-9));
+        List<Car> candidates = getCarsByPriceRange(0, searchMax);
+        int end = candidates.size();
+        while (end > 0 && terms.calculateMonthlyPayment(candidates.get(end - 1).getPrice()) > monthlyBudget) {
+            end--;
+        }
+        return end == candidates.size() ? candidates : candidates.subList(0, end);
     }
 
     /**
-     * Get distinct categories
+     * Get distinct categories (kept up to date by the facet counts)
      */
     public List<String> getCategories() {
-        return cars.stream()
-            .map(Car::getCategory)
-            .filter(cat -> cat != null)
-            .distinct()
-            .sorted()
-            .collect(Collectors.toList());
+        if (useDatabaseMode) {
+            return carDAO.findCategories();
+        }
+        return new ArrayList<>(catalog.getFacets().getCategoryCounts().keySet());
     }
     
     /**
-     * Get distinct years
+     * Get the distinct image paths of the catalog's cars (e.g. to warm the
+     * thumbnail cache) without reading the cars themselves in database mode
+     */
+    public Set<String> getImagePaths() {
+        if (useDatabaseMode) {
+            return new LinkedHashSet<>(carDAO.findImagePaths());
+        }
+        Set<String> imagePaths = new LinkedHashSet<>();
+        for (Car car : catalog.getCars()) {
+            if (car.getImagePath() != null && !car.getImagePath().isEmpty()) {
+                imagePaths.add(car.getImagePath());
+            }
+        }
+        return imagePaths;
+    }
+
+    /**
+     * Get distinct years, newest first
      */
     public List<Integer> getDistinctYears() {
-        return cars.stream()
-            .map(Car::getYear)
-            .distinct()
-            .sorted((a, b) -> b - a)
-            .collect(Collectors.toList());
+        if (useDatabaseMode) {
+            return carDAO.findDistinctYears();
+        }
+        return new ArrayList<>(catalog.getFacets().getYearCounts().keySet());
     }
 
     /**
      * Get car count
      */
     public int getCarCount() {
-        return cars.size();
+        if (useDatabaseMode) {
+            try {
+                return carDAO.count();
+            } catch (SQLException e) {
+                System.err.println("Error counting cars: " + e.getMessage());
+                return 0;
+            }
+        }
+        return catalog.size();
     }
     
     /**
      * Get available car count
      */
     public int getAvailableCarCount() {
-        return cars.size();
+        return getCarCount();
+    }
+    
+    /**
+     * Check whether the catalog is backed by the H2 database
+     */
+    public boolean isDatabaseMode() {
+        return useDatabaseMode;
     }
 
     /**
-     * Refresh car data (no-op for in-memory data)
+     * Get the current catalog snapshot (memory mode). Readers may hold on to
+     * it for as long as they like; it never changes.
      */
-    public void refreshData() {
-        // Data is always fresh in memory
+    public CarCatalog getCatalogSnapshot() {
+        return catalog;
+    }
+
+    /**
+     * Add a car, or replace the car with the same ID.
+     * Publishes a new snapshot with its indexes built; pass a new Car instance
+     * rather than mutating a published one.
+     * In database mode listeners hear about the write from the refresh it starts.
+     */
+    public void saveCar(Car car) {
+        if (useDatabaseMode) {
+            try {
+                carDAO.saveAll(Collections.singletonList(car));
+                refreshData();
+            } catch (SQLException e) {
+                System.err.println("Error saving car: " + e.getMessage());
+            }
+            return;
+        }
+        CarCatalogChange change;
+        synchronized (writeLock) {
+            CarCatalog current = catalog;
+            change = current.rowOf(car.getId()) >= 0
+                ? CarCatalogChange.changed(car.getId()) : CarCatalogChange.added(car.getId());
+            catalog = current.withCar(car).buildIndexes();
+        }
+        fireCatalogChanged(change);
+    }
+
+    /**
+     * Remove a car by ID.
+     * In database mode listeners hear about the removal from the refresh it starts.
+     * @return true if a car was removed
+     */
+    public boolean removeCar(int id) {
+        if (useDatabaseMode) {
+            boolean removed = carDAO.delete(id);
+            if (removed) {
+                refreshData();
+            }
+            return removed;
+        }
+        boolean removed;
+        synchronized (writeLock) {
+            CarCatalog current = catalog;
+            CarCatalog next = current.withoutCar(id);
+            catalog = next.buildIndexes();
+            removed = next != current;
+        }
+        if (removed) {
+            fireCatalogChanged(CarCatalogChange.removed(id));
+        }
+        return removed;
+    }
+
+    /**
+     * Replace the whole in-memory catalog with the given cars in one atomic swap
+     */
+    public void replaceAllCars(List<Car> cars) {
+        swapCatalog(new CarCatalog(cars).buildIndexes());
+    }
+
+    /**
+     * Bulk import cars from a dealer CSV or JSON feed.
+     * Rows are parsed and validated in parallel and stored in batches: each
+     * batch is one transaction in database mode, while memory mode publishes
+     * all imported cars in a single snapshot swap at the end. Rows with an
+     * existing ID replace that car; rows without an ID are numbered after the
+     * highest ID once the whole file has been read, so they never collide
+     * with IDs that appear later in the file. Database-mode imports run one
+     * at a time.
+     * @return counts, throughput and a sample of rejected rows
+     * @throws IOException if the file cannot be read or the cars cannot be stored
+     */
+    public CarImporter.ImportResult importCars(String filePath) throws IOException {
+        int[] pendingIds = { 0 };
+        if (useDatabaseMode) {
+            CarImporter.ImportResult result;
+            // Temporary IDs restart at -1 for every import, so two imports
+            // storing them at once would overwrite each other's rows
+            synchronized (importLock) {
+                result = new CarImporter().importFile(filePath, batch -> {
+                    assignPendingIds(batch, pendingIds);
+                    carDAO.saveAll(batch);
+                });
+                if (pendingIds[0] > 0) {
+                    try {
+                        carDAO.renumberPendingIds();
+                    } catch (SQLException e) {
+                        throw new IOException("Error assigning IDs to imported cars: " + e.getMessage(), e);
+                    }
+                }
+            }
+            refreshData();
+            return result;
+        }
+
+        List<Car> imported = new ArrayList<>();
+        CarImporter.ImportResult result = new CarImporter().importFile(filePath, batch -> {
+            assignPendingIds(batch, pendingIds);
+            imported.addAll(batch);
+        });
+        CarCatalogChange change;
+        synchronized (writeLock) {
+            CarCatalog current = catalog;
+            numberPendingIds(imported, current.getCars());
+            CarCatalog next = current.withCars(imported).buildIndexes();
+            change = CarCatalogChange.between(current, next);
+            catalog = next;
+        }
+        fireCatalogChanged(change);
+        return result;
+    }
+
+    /**
+     * Give rows without an ID temporary negative IDs (-1, -2, ...) in file order
+     */
+    private static void assignPendingIds(List<Car> batch, int[] pendingIds) {
+        for (Car car : batch) {
+            if (car.getId() <= 0) {
+                car.setId(-(++pendingIds[0]));
+            }
+        }
+    }
+
+    /**
+     * Replace temporary IDs with the IDs after the highest one in use
+     */
+    private static void numberPendingIds(List<Car> cars, List<Car> existing) {
+        int maxId = 0;
+        for (Car car : existing) {
+            maxId = Math.max(maxId, car.getId());
+        }
+        for (Car car : cars) {
+            maxId = Math.max(maxId, car.getId());
+        }
+        for (Car car : cars) {
+            if (car.getId() < 0) {
+                car.setId(maxId - car.getId());
+            }
+        }
+    }
+
+    private long[] searchMask(CarCatalog snapshot, String query) {
+        CarFacetIndex facetIndex = snapshot.getFacetIndex();
+        if (isBlank(query)) {
+            return facetIndex.allRows();
+        }
+        return facetIndex.maskOf(searchRows(snapshot, query));
+    }
+
+    /**
+     * Rows matching a non-blank query, falling back to typo-tolerant search
+     * (best first) when nothing matches exactly
+     */
+    private int[] searchRows(CarCatalog snapshot, String query) {
+        int[] rows = snapshot.getSearchIndex().searchRows(query.toLowerCase().trim());
+        if (rows.length == 0) {
+            rows = snapshot.getFuzzyIndex().searchRows(query, FUZZY_RESULT_LIMIT, FUZZY_BUDGET_MICROS * 1000);
+        }
+        return rows;
+    }
+
+    private static List<Car> toCars(CarCatalog snapshot, int[] rows) {
+        List<Car> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(snapshot.getRow(row));
+        }
+        return result;
+    }
+
+    private static boolean isBlank(String query) {
+        return query == null || query.trim().isEmpty();
+    }
+
+    // ==================== REFRESH ====================
+
+    /**
+     * Register a listener for catalog changes (saves, removals, imports and refreshes)
+     */
+    public void addCatalogListener(CatalogListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeCatalogListener(CatalogListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Reload the catalog from its source on a background thread: the
+     * database in database mode, or the dealer feed file in memory mode
+     * (nothing to reload without one). Listeners receive the IDs that were
+     * added, removed or changed.
+     * In memory mode the new snapshot and its indexes are built before it is
+     * swapped in, so readers keep using the old snapshot without blocking
+     * until the swap. Feed rows without an ID are numbered by position, so
+     * give feed rows IDs to get precise change sets.
+     * In database mode nothing is loaded: the change set is read from the
+     * row versions written since the last refresh.
+     * @return the change set, once the refresh has finished
+     */
+    public CompletableFuture<CarCatalogChange> refreshData() {
+        return CompletableFuture.supplyAsync(this::reloadCatalog, refreshExecutor);
+    }
+
+    private CarCatalogChange reloadCatalog() {
+        if (useDatabaseMode) {
+            return readDatabaseChanges();
+        }
+        List<Car> cars = loadFeed();
+        if (cars == null) {
+            return CarCatalogChange.none();
+        }
+        return swapCatalog(new CarCatalog(cars).buildIndexes());
+    }
+
+    /**
+     * Report the cars written or deleted since the last refresh (refresh thread only)
+     */
+    private CarCatalogChange readDatabaseChanges() {
+        try {
+            long version = carDAO.currentVersion();
+            CarCatalogChange change = carDAO.findChanges(seenVersion, version);
+            carDAO.purgeDeletions(version);
+            seenVersion = version;
+            fireCatalogChanged(change);
+            return change;
+        } catch (SQLException e) {
+            System.err.println("Error refreshing car catalog: " + e.getMessage());
+            return CarCatalogChange.none();
+        }
+    }
+
+    /**
+     * Load every car from the dealer feed, or null if there is none
+     */
+    private List<Car> loadFeed() {
+        String feed = System.getProperty("vismera.catalog.feed");
+        if (feed == null) {
+            return null;
+        }
+        List<Car> cars = new ArrayList<>();
+        int[] pendingIds = { 0 };
+        try {
+            new CarImporter().importFile(feed, batch -> {
+                assignPendingIds(batch, pendingIds);
+                cars.addAll(batch);
+            });
+        } catch (IOException e) {
+            System.err.println("Error refreshing car catalog: " + e.getMessage());
+            return null;
+        }
+        numberPendingIds(cars, Collections.<Car>emptyList());
+        return cars;
+    }
+
+    private CarCatalogChange swapCatalog(CarCatalog next) {
+        CarCatalogChange change;
+        synchronized (writeLock) {
+            change = CarCatalogChange.between(catalog, next);
+            catalog = next;
+        }
+        fireCatalogChanged(change);
+        return change;
+    }
+
+    private void fireCatalogChanged(CarCatalogChange change) {
+        if (change.isEmpty()) {
+            return;
+        }
+        for (CatalogListener listener : listeners) {
+            listener.catalogChanged(change);
+        }
     }
 }
@@ -4,6 +4,7 @@ import com.vismera.models.AmortizationEntry;
 import com.vismera.models.LoanCalculation;
 import com.vismera.utils.CSVExporter;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * Controller for loan calculations and amortization.
@@ -12,7 +13,7 @@ import java.util.List;
 public class LoanController {
     
     private static LoanController instance;
-    private LoanCalculation currentLoan;
+    private volatile LoanCalculation currentLoan;
 
     private LoanController() {
     }
@@ -31,12 +32,20 @@ public class LoanController {
      * Calculate loan with given parameters
      */
     public LoanCalculation calculateLoan(LoanCalculation loan) {
-        this.currentLoan = loan;
-        
+        return calculateLoan(loan, null);
+    }
+
+    /**
+     * Calculate loan, reporting schedule progress in percent. Safe to call
+     * from a background thread; an interrupt cancels the calculation with a
+     * CancellationException and leaves the current loan unchanged.
+     */
+    public LoanCalculation calculateLoan(LoanCalculation loan, IntConsumer progress) {
         // Trigger all calculations
         loan.calculateMonthlyPayment();
-        loan.generateAmortizationSchedule();
+        loan.generateAmortizationSchedule(progress);
         
+        this.currentLoan = loan;
         return loan;
     }
 
@@ -56,6 +65,27 @@ public class LoanController {
             int missedPayments,
             double extraPayment) {
         
+        return calculateLoan(newLoanCalculation(carPrice, salesTaxRate, registrationFee,
+            downPayment, tradeInValue, annualInterestRate, loanTermYears,
+            compoundingFrequency, penaltyRate, missedPayments, extraPayment));
+    }
+
+    /**
+     * Build a loan calculation from input parameters without calculating it
+     */
+    public LoanCalculation newLoanCalculation(
+            double carPrice,
+            double salesTaxRate,
+            double registrationFee,
+            double downPayment,
+            double tradeInValue,
+            double annualInterestRate,
+            int loanTermYears,
+            String compoundingFrequency,
+            double penaltyRate,
+            int missedPayments,
+            double extraPayment) {
+        
         LoanCalculation loan = new LoanCalculation();
         loan.setCarPrice(carPrice);
         loan.setSalesTaxRate(salesTaxRate);
@@ -69,7 +99,7 @@ public class LoanController {
         loan.setMissedPayments(missedPayments);
         loan.setExtraPaymentPerMonth(extraPayment);
         
-        return calculateLoan(loan);
+        return loan;
     }
 
     /**
@@ -0,0 +1,872 @@
+package com.vismera.dao;
+
+import com.vismera.models.Car;
+import com.vismera.utils.CarCatalogChange;
+import com.vismera.utils.CarFacets;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Data access object for the 'cars' table.
+ * All queries use prepared statements and push their filters into SQL,
+ * so only matching rows are ever materialized. Text search is answered from
+ * an n-gram side table rather than a scan, and the lists that can hold the
+ * whole table (all cars, a category, a search) are read a page at a time.
+ *
+ * @author Vismerá Inc.
+ */
+public class CarDAO {
+
+    private static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS cars ("
+        + "id INT PRIMARY KEY, "
+        + "make VARCHAR(100) NOT NULL, "
+        + "model VARCHAR(100) NOT NULL, "
+        + "model_year INT NOT NULL, "
+        + "price DECIMAL(15,2) NOT NULL, "
+        + "category VARCHAR_IGNORECASE(50), "
+        + "color VARCHAR(50), "
+        + "mpg INT DEFAULT 0, "
+        + "image_path VARCHAR(255), "
+        + "notes VARCHAR(1000), "
+        + "available BOOLEAN DEFAULT TRUE, "
+        + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+        + "search_text VARCHAR(600) NOT NULL)";
+
+    private static final String[] CREATE_INDEXES = {
+        "CREATE INDEX IF NOT EXISTS idx_cars_make ON cars(make)",
+        "CREATE INDEX IF NOT EXISTS idx_cars_model ON cars(model)",
+        "CREATE INDEX IF NOT EXISTS idx_cars_category ON cars(category)",
+        "CREATE INDEX IF NOT EXISTS idx_cars_year ON cars(model_year)",
+        "CREATE INDEX IF NOT EXISTS idx_cars_price ON cars(price)",
+        "CREATE INDEX IF NOT EXISTS idx_cars_version ON cars(row_version)",
+        "CREATE INDEX IF NOT EXISTS idx_car_grams_id ON car_grams(id)"
+    };
+
+    /**
+     * Search index: every position of every search_text field posts the
+     * gram of up to 3 characters starting there (shorter at the end of a
+     * field), like CarSearchIndex does in memory
+     */
+    private static final String CREATE_GRAMS =
+        "CREATE TABLE IF NOT EXISTS car_grams (gram VARCHAR(8) NOT NULL, id INT NOT NULL, "
+        + "PRIMARY KEY (gram, id))";
+    private static final String INSERT_GRAM =
+        "INSERT INTO car_grams (gram, id) VALUES (?, ?)";
+    private static final String DELETE_GRAMS =
+        "DELETE FROM car_grams WHERE id = ?";
+    private static final String RENUMBER_PENDING_GRAMS =
+        "UPDATE car_grams SET id = ? - id WHERE id < 0";
+    /** Cars stored before the gram table existed; every car posts at least its year */
+    private static final String SELECT_WITHOUT_GRAMS =
+        "SELECT id, search_text FROM cars c WHERE NOT EXISTS "
+        + "(SELECT 1 FROM car_grams g WHERE g.id = c.id) LIMIT ?";
+    private static final int GRAM_LENGTH = 3;
+    private static final int BACKFILL_BATCH = 5000;
+
+    /**
+     * Change tracking: every write takes the next value of one sequence, so
+     * a refresh can ask for the rows written since the version it last saw.
+     * The columns are added separately so older catalogs are upgraded too.
+     */
+    private static final String CREATE_VERSION_SEQUENCE =
+        "CREATE SEQUENCE IF NOT EXISTS car_versions";
+    private static final String[] ADD_VERSION_COLUMNS = {
+        "ALTER TABLE cars ADD COLUMN IF NOT EXISTS row_version BIGINT DEFAULT 0 NOT NULL",
+        // Only set on insert: MERGE leaves columns it does not list untouched on update
+        "ALTER TABLE cars ADD COLUMN IF NOT EXISTS created_version BIGINT "
+            + "DEFAULT NEXT VALUE FOR car_versions NOT NULL"
+    };
+    private static final String CREATE_DELETIONS =
+        "CREATE TABLE IF NOT EXISTS car_deletions (id INT PRIMARY KEY, row_version BIGINT NOT NULL)";
+    private static final String SELECT_VERSION =
+        "SELECT BASE_VALUE - 1 FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'CAR_VERSIONS'";
+    // Rows an import has not numbered yet (negative IDs) are reported once renumbered
+    private static final String SELECT_WRITTEN_SINCE =
+        "SELECT id, created_version > ? FROM cars WHERE row_version > ? AND row_version <= ? AND id > 0";
+    private static final String SELECT_DELETED_SINCE =
+        "SELECT id FROM car_deletions WHERE row_version > ? AND row_version <= ? "
+        + "AND id NOT IN (SELECT id FROM cars)";
+    private static final String PURGE_DELETIONS =
+        "DELETE FROM car_deletions WHERE row_version <= ?";
+    private static final String RECORD_DELETION =
+        "MERGE INTO car_deletions (id, row_version) KEY (id) VALUES (?, NEXT VALUE FOR car_versions)";
+
+    private static final String COLUMNS =
+        "id, make, model, model_year, price, category, color, mpg, image_path, notes, available, created_at";
+
+    private static final String SELECT_BY_ID =
+        "SELECT " + COLUMNS + " FROM cars WHERE id = ?";
+    private static final String SELECT_BY_PRICE_RANGE =
+        "SELECT " + COLUMNS + " FROM cars WHERE price BETWEEN ? AND ? ORDER BY price, id";
+    private static final String SELECT_BY_MIN_PRICE =
+        "SELECT " + COLUMNS + " FROM cars WHERE price >= ? ORDER BY price, id";
+    private static final String SELECT_BY_MAX_PRICE =
+        "SELECT " + COLUMNS + " FROM cars WHERE price <= ? ORDER BY price, id";
+    private static final String SELECT_ALL_BY_PRICE =
+        "SELECT " + COLUMNS + " FROM cars ORDER BY price, id";
+    private static final String SELECT_CHEAPEST =
+        "SELECT " + COLUMNS + " FROM cars ORDER BY price, id LIMIT ?";
+    private static final String SELECT_CHEAPEST_IN_CATEGORY =
+        "SELECT " + COLUMNS + " FROM cars WHERE category = ? ORDER BY price, id LIMIT ?";
+    private static final String SELECT_PRICE_AT_LEAST =
+        "SELECT " + COLUMNS + " FROM cars WHERE price >= ? ORDER BY price, id LIMIT 1";
+    private static final String SELECT_PRICE_AT_MOST =
+        "SELECT " + COLUMNS + " FROM cars WHERE price <= ? ORDER BY price DESC, id LIMIT 1";
+    private static final String SELECT_MOST_EXPENSIVE =
+        "SELECT " + COLUMNS + " FROM cars ORDER BY price DESC, id LIMIT 1";
+    private static final String SELECT_IMAGE_PATHS =
+        "SELECT DISTINCT image_path FROM cars WHERE image_path IS NOT NULL AND image_path <> ''";
+    private static final String SELECT_CATEGORIES =
+        "SELECT DISTINCT category FROM cars WHERE category IS NOT NULL ORDER BY category";
+    private static final String SELECT_YEARS =
+        "SELECT DISTINCT model_year FROM cars ORDER BY model_year DESC";
+    private static final String DELETE =
+        "DELETE FROM cars WHERE id = ?";
+    private static final String COUNT =
+        "SELECT COUNT(*) FROM cars";
+    /** Search condition of a query that cannot match (it spans two fields) */
+    private static final Condition NO_MATCH = new Condition(" WHERE FALSE");
+    private static final Condition EVERY_CAR = new Condition("");
+    private static final String SELECT_MAX_ID =
+        "SELECT COALESCE(MAX(id), 0) FROM cars WHERE id > 0";
+    private static final String RENUMBER_PENDING =
+        "UPDATE cars SET id = ? - id, row_version = NEXT VALUE FOR car_versions, "
+        + "created_version = NEXT VALUE FOR car_versions WHERE id < 0";
+    private static final String MERGE =
+        "MERGE INTO cars (" + COLUMNS + ", search_text, row_version) KEY (id) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NEXT VALUE FOR car_versions)";
+
+    /**
+     * Separates fields inside search_text so a query never matches across two fields
+     */
+    private static final char FIELD_SEPARATOR = '\n';
+
+    /** Magnitude no DECIMAL(15,2) price reaches */
+    private static final double PRICE_LIMIT = 1e13;
+
+    /**
+     * Sequence value at the start of each write transaction still running;
+     * versions above the lowest one may belong to rows not committed yet
+     */
+    private static final List<Long> writesInFlight = new ArrayList<>();
+
+    private final DatabaseConnection database;
+
+    public CarDAO(DatabaseConnection database) {
+        this.database = database;
+    }
+
+    /**
+     * Create the cars table and its indexes if they do not exist
+     */
+    public void createSchema() throws SQLException {
+        try (Connection conn = database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_VERSION_SEQUENCE);
+            stmt.execute(CREATE_TABLE);
+            for (String column : ADD_VERSION_COLUMNS) {
+                stmt.execute(column);
+            }
+            stmt.execute(CREATE_DELETIONS);
+            stmt.execute(CREATE_GRAMS);
+            for (String index : CREATE_INDEXES) {
+                stmt.execute(index);
+            }
+        }
+        backfillGrams();
+    }
+
+    /**
+     * Insert or update cars in a single batch
+     */
+    public void saveAll(List<Car> cars) throws SQLException {
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(MERGE)) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            long write = beginWrite(conn);
+            try {
+                // The last row for an ID wins, so only its grams are posted
+                Map<Integer, String> searchTexts = new LinkedHashMap<>();
+                for (Car car : cars) {
+                    String searchText = buildSearchText(car);
+                    bindCar(ps, car, searchText);
+                    ps.addBatch();
+                    searchTexts.put(car.getId(), searchText);
+                }
+                ps.executeBatch();
+                replaceGrams(conn, searchTexts);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                endWrite(write);
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Delete a car by ID, recording the deletion for {@link #findChanges(long, long)}
+     * @return true if a row was deleted
+     */
+    public boolean delete(int id) {
+        try (Connection conn = database.getConnection();
+             PreparedStatement record = conn.prepareStatement(RECORD_DELETION);
+             PreparedStatement grams = conn.prepareStatement(DELETE_GRAMS);
+             PreparedStatement ps = conn.prepareStatement(DELETE)) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            long write = beginWrite(conn);
+            try {
+                record.setInt(1, id);
+                record.executeUpdate();
+                ps.setInt(1, id);
+                boolean deleted = ps.executeUpdate() > 0;
+                if (deleted) {
+                    grams.setInt(1, id);
+                    grams.executeUpdate();
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                endWrite(write);
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deleting car: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get all cars ordered by ID, read a page at a time
+     */
+    public List<Car> findAll() {
+        return paged(EVERY_CAR);
+    }
+
+    /**
+     * Get a car by its ID, or null if not found
+     */
+    public Car findById(int id) {
+        List<Car> result = query(SELECT_BY_ID, id);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Get cars in a category (case-insensitive), read a page at a time
+     */
+    public List<Car> findByCategory(String category) {
+        return paged(new Condition(" WHERE category = ?", category));
+    }
+
+    /**
+     * Get cars within a price range (inclusive), cheapest first
+     */
+    public List<Car> findByPriceRange(double minPrice, double maxPrice) {
+        if (!(minPrice <= maxPrice) || minPrice >= PRICE_LIMIT || maxPrice <= -PRICE_LIMIT) {
+            return new ArrayList<>(); // also NaN bounds
+        }
+        // Bounds beyond DECIMAL(15,2), including infinity, are open ends rather than parameters
+        boolean hasMin = minPrice > -PRICE_LIMIT;
+        boolean hasMax = maxPrice < PRICE_LIMIT;
+        if (hasMin && hasMax) {
+            return query(SELECT_BY_PRICE_RANGE, BigDecimal.valueOf(minPrice), BigDecimal.valueOf(maxPrice));
+        }
+        if (hasMin) {
+            return query(SELECT_BY_MIN_PRICE, BigDecimal.valueOf(minPrice));
+        }
+        if (hasMax) {
+            return query(SELECT_BY_MAX_PRICE, BigDecimal.valueOf(maxPrice));
+        }
+        return query(SELECT_ALL_BY_PRICE);
+    }
+
+    /**
+     * Get the cheapest cars in a category ("All" or null for every category)
+     */
+    public List<Car> findCheapest(String category, int limit) {
+        if (category == null || category.equalsIgnoreCase("All")) {
+            return query(SELECT_CHEAPEST, limit);
+        }
+        return query(SELECT_CHEAPEST_IN_CATEGORY, category, limit);
+    }
+
+    /**
+     * Get the car whose price is closest to the given price (cheaper wins a
+     * tie), or null for a NaN price
+     */
+    public Car findNearestPrice(double price) {
+        if (Double.isNaN(price)) {
+            return null;
+        }
+        // Prices beyond DECIMAL(15,2), including infinity, are nearest to an end of the catalog
+        if (price >= PRICE_LIMIT) {
+            List<Car> cars = query(SELECT_MOST_EXPENSIVE);
+            return cars.isEmpty() ? null : cars.get(0);
+        }
+        if (price <= -PRICE_LIMIT) {
+            List<Car> cars = query(SELECT_CHEAPEST, 1);
+            return cars.isEmpty() ? null : cars.get(0);
+        }
+        BigDecimal target = BigDecimal.valueOf(price);
+        List<Car> above = query(SELECT_PRICE_AT_LEAST, target);
+        List<Car> below = query(SELECT_PRICE_AT_MOST, target);
+        if (below.isEmpty()) {
+            return above.isEmpty() ? null : above.get(0);
+        }
+        if (above.isEmpty()) {
+            return below.get(0);
+        }
+        BigDecimal belowGap = target.subtract(below.get(0).getPriceBigDecimal());
+        BigDecimal aboveGap = above.get(0).getPriceBigDecimal().subtract(target);
+        return belowGap.compareTo(aboveGap) <= 0 ? below.get(0) : above.get(0);
+    }
+
+    /**
+     * Search cars by make, model, category, color, or year.
+     * Matches a lowercased substring of any one field, like the in-memory
+     * search, and is read a page at a time.
+     */
+    public List<Car> search(String lowerQuery) {
+        return paged(searchCondition(lowerQuery));
+    }
+
+    /**
+     * Search cars and narrow the result to one category (case-insensitive).
+     * A null query matches every car.
+     */
+    public List<Car> search(String lowerQuery, String category) {
+        if (lowerQuery == null) {
+            return findByCategory(category);
+        }
+        return paged(searchCondition(lowerQuery).and("category = ?", category));
+    }
+
+    /**
+     * Count cars per category, make, year and price bucket with GROUP BY queries.
+     * A null query counts the whole table.
+     */
+    public CarFacets findFacets(String lowerQuery) {
+        Condition condition = lowerQuery == null ? EVERY_CAR : searchCondition(lowerQuery);
+        String where = condition.where;
+        Object[] params = condition.params;
+
+        Map<String, Integer> categories = countBy("category", where, params, String.class);
+        Map<String, Integer> makes = countBy("make", where, params, String.class);
+        Map<Integer, Integer> years = countBy("model_year", where, params, Integer.class);
+        Map<Integer, Integer> bucketCounts = countBy(priceBucketExpression(), where, params, Integer.class);
+
+        int[] buckets = new int[CarFacets.getPriceBucketCount()];
+        for (Map.Entry<Integer, Integer> entry : bucketCounts.entrySet()) {
+            buckets[entry.getKey()] = entry.getValue();
+        }
+        return new CarFacets(categories, makes, years, buckets);
+    }
+
+    /**
+     * Get distinct categories, sorted
+     */
+    public List<String> findCategories() {
+        List<String> categories = new ArrayList<>();
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_CATEGORIES);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                categories.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading categories: " + e.getMessage());
+        }
+        return categories;
+    }
+
+    /**
+     * Get the distinct image paths of the cars
+     */
+    public List<String> findImagePaths() {
+        List<String> imagePaths = new ArrayList<>();
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_IMAGE_PATHS);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                imagePaths.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading image paths: " + e.getMessage());
+        }
+        return imagePaths;
+    }
+
+    /**
+     * Get distinct years, newest first
+     */
+    public List<Integer> findDistinctYears() {
+        List<Integer> years = new ArrayList<>();
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_YEARS);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                years.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading years: " + e.getMessage());
+        }
+        return years;
+    }
+
+    /**
+     * Get the number of cars in the table
+     */
+    public int count() throws SQLException {
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Move cars with temporary negative IDs (-1, -2, ...) to the IDs after the
+     * current highest, keeping their order. Every negative ID is treated as
+     * pending, so only one import may store temporary IDs at a time.
+     */
+    public void renumberPendingIds() throws SQLException {
+        try (Connection conn = database.getConnection();
+             PreparedStatement max = conn.prepareStatement(SELECT_MAX_ID);
+             PreparedStatement ps = conn.prepareStatement(RENUMBER_PENDING);
+             PreparedStatement grams = conn.prepareStatement(RENUMBER_PENDING_GRAMS)) {
+            int maxId;
+            try (ResultSet rs = max.executeQuery()) {
+                maxId = rs.next() ? rs.getInt(1) : 0;
+            }
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            long write = beginWrite(conn);
+            try {
+                ps.setInt(1, maxId);
+                ps.executeUpdate();
+                grams.setInt(1, maxId);
+                grams.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                endWrite(write);
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    // ==================== CHANGE TRACKING ====================
+
+    /**
+     * Get the latest version up to which every write has finished. Versions
+     * are handed out when a row is written, not when its transaction
+     * commits, so this stops below the first version a running write may
+     * hold. Only writes made through a CarDAO in this process are tracked.
+     */
+    public long currentVersion() throws SQLException {
+        try (Connection conn = database.getConnection()) {
+            // Under the lock, so no write can take a version between the two reads
+            synchronized (writesInFlight) {
+                long version = readVersion(conn);
+                for (long start : writesInFlight) {
+                    version = Math.min(version, start);
+                }
+                return version;
+            }
+        }
+    }
+
+    /**
+     * Get the IDs added, changed and removed by writes with versions in
+     * (sinceVersion, toVersion], read from the version index and the
+     * deletion log without loading any car
+     */
+    public CarCatalogChange findChanges(long sinceVersion, long toVersion) throws SQLException {
+        IntStream.Builder added = IntStream.builder();
+        IntStream.Builder changed = IntStream.builder();
+        IntStream.Builder removed = IntStream.builder();
+        try (Connection conn = database.getConnection();
+             PreparedStatement written = conn.prepareStatement(SELECT_WRITTEN_SINCE);
+             PreparedStatement deleted = conn.prepareStatement(SELECT_DELETED_SINCE)) {
+            written.setLong(1, sinceVersion);
+            written.setLong(2, sinceVersion);
+            written.setLong(3, toVersion);
+            try (ResultSet rs = written.executeQuery()) {
+                while (rs.next()) {
+                    (rs.getBoolean(2) ? added : changed).add(rs.getInt(1));
+                }
+            }
+            deleted.setLong(1, sinceVersion);
+            deleted.setLong(2, toVersion);
+            try (ResultSet rs = deleted.executeQuery()) {
+                while (rs.next()) {
+                    removed.add(rs.getInt(1));
+                }
+            }
+        }
+        return new CarCatalogChange(added.build().toArray(), removed.build().toArray(), changed.build().toArray());
+    }
+
+    /**
+     * Drop deletion records that every refresh has already seen
+     */
+    public void purgeDeletions(long throughVersion) throws SQLException {
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(PURGE_DELETIONS)) {
+            ps.setLong(1, throughVersion);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Register a write transaction before it takes any version
+     * @return the token to pass to {@link #endWrite(long)}
+     */
+    private long beginWrite(Connection conn) throws SQLException {
+        synchronized (writesInFlight) {
+            long start = readVersion(conn);
+            writesInFlight.add(start);
+            return start;
+        }
+    }
+
+    /**
+     * Unregister a write once it has committed or rolled back
+     */
+    private void endWrite(long start) {
+        synchronized (writesInFlight) {
+            writesInFlight.remove(Long.valueOf(start));
+        }
+    }
+
+    /**
+     * Last value the version sequence handed out, committed or not
+     */
+    private static long readVersion(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_VERSION);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // ==================== SEARCH INDEX ====================
+
+    /**
+     * Condition matching the cars whose search text contains the query in
+     * one field. Queries of 3+ characters take the candidates posted under
+     * their first and last trigram and check them for the whole substring;
+     * 2 character queries match the grams they start. A single character
+     * matches most of the catalog, so it is checked on every row instead.
+     */
+    private static Condition searchCondition(String lowerQuery) {
+        if (lowerQuery.indexOf(FIELD_SEPARATOR) >= 0) {
+            return NO_MATCH;
+        }
+        if (lowerQuery.length() == 1) {
+            return new Condition(" WHERE search_text LIKE ? ESCAPE '\\'", likePattern(lowerQuery));
+        }
+        if (lowerQuery.length() < GRAM_LENGTH) {
+            // Every gram starting with the query sorts in this range
+            return new Condition(" WHERE id IN (SELECT id FROM car_grams WHERE gram >= ? AND gram < ?)",
+                lowerQuery, lowerQuery + Character.MAX_VALUE);
+        }
+        // More trigrams rarely narrow the candidates further but each costs
+        // another lookup; the LIKE check settles the rest
+        String first = lowerQuery.substring(0, GRAM_LENGTH);
+        String last = lowerQuery.substring(lowerQuery.length() - GRAM_LENGTH);
+        Condition condition = new Condition(" WHERE id IN (SELECT id FROM car_grams WHERE gram = ?)", first);
+        if (!last.equals(first)) {
+            condition = condition.and("id IN (SELECT id FROM car_grams WHERE gram = ?)", last);
+        }
+        return condition.and("search_text LIKE ? ESCAPE '\\'", likePattern(lowerQuery));
+    }
+
+    /**
+     * Replace the grams posted for the given cars (ID to search text)
+     * inside the caller's transaction
+     */
+    private static void replaceGrams(Connection conn, Map<Integer, String> searchTexts) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement(DELETE_GRAMS);
+             PreparedStatement insert = conn.prepareStatement(INSERT_GRAM)) {
+            for (int id : searchTexts.keySet()) {
+                delete.setInt(1, id);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+            for (Map.Entry<Integer, String> entry : searchTexts.entrySet()) {
+                for (String gram : gramsOf(entry.getValue())) {
+                    insert.setString(1, gram);
+                    insert.setInt(2, entry.getKey());
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Post the grams of cars stored before the gram table existed, a batch
+     * per transaction so an interrupted run resumes where it stopped
+     */
+    private void backfillGrams() throws SQLException {
+        try (Connection conn = database.getConnection();
+             PreparedStatement missing = conn.prepareStatement(SELECT_WITHOUT_GRAMS)) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                missing.setInt(1, BACKFILL_BATCH);
+                while (true) {
+                    Map<Integer, String> searchTexts = new LinkedHashMap<>();
+                    try (ResultSet rs = missing.executeQuery()) {
+                        while (rs.next()) {
+                            searchTexts.put(rs.getInt(1), rs.getString(2));
+                        }
+                    }
+                    if (searchTexts.isEmpty()) {
+                        break;
+                    }
+                    replaceGrams(conn, searchTexts);
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Distinct grams of a search text: from every position, up to 3
+     * characters without crossing into the next field. Single characters
+     * are left out as those queries are not answered from the grams.
+     */
+    private static Set<String> gramsOf(String searchText) {
+        Set<String> grams = new HashSet<>();
+        int length = searchText.length();
+        for (int i = 0; i < length; i++) {
+            if (searchText.charAt(i) == FIELD_SEPARATOR) {
+                continue;
+            }
+            int end = i + 1;
+            while (end < length && end - i < GRAM_LENGTH && searchText.charAt(end) != FIELD_SEPARATOR) {
+                end++;
+            }
+            if (end - i > 1) {
+                grams.add(searchText.substring(i, end));
+            }
+        }
+        return grams;
+    }
+
+    // ==================== PAGING ====================
+
+    /**
+     * A WHERE clause (empty for every car) and its parameters. The SQL is
+     * always built in this class, never from user input.
+     */
+    private static final class Condition {
+        final String where;
+        final Object[] params;
+
+        Condition(String where, Object... params) {
+            this.where = where;
+            this.params = params;
+        }
+
+        Condition and(String sql, Object param) {
+            Object[] combined = Arrays.copyOf(params, params.length + 1);
+            combined[params.length] = param;
+            return new Condition((where.isEmpty() ? " WHERE " : where + " AND ") + sql, combined);
+        }
+    }
+
+    /**
+     * Count the cars matching the condition now and read them in ID order
+     * a page at a time as the list is read
+     */
+    private List<Car> paged(Condition condition) {
+        int size = count(condition);
+        String offsetSql = "SELECT " + COLUMNS + " FROM cars" + condition.where + " ORDER BY id LIMIT ? OFFSET ?";
+        String keysetSql = "SELECT " + COLUMNS + " FROM cars" + condition.and("id > ?", null).where
+            + " ORDER BY id LIMIT ?";
+        return new PagedCarList(size, (offset, afterId) -> {
+            Object[] params = Arrays.copyOf(condition.params, condition.params.length + 2);
+            if (afterId == null) {
+                params[params.length - 2] = PagedCarList.PAGE_SIZE;
+                params[params.length - 1] = offset;
+                return query(offsetSql, params);
+            }
+            params[params.length - 2] = afterId;
+            params[params.length - 1] = PagedCarList.PAGE_SIZE;
+            return query(keysetSql, params);
+        });
+    }
+
+    private int count(Condition condition) {
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT + condition.where)) {
+            for (int i = 0; i < condition.params.length; i++) {
+                ps.setObject(i + 1, condition.params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting cars: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private List<Car> query(String sql, Object... params) {
+        List<Car> cars = new ArrayList<>();
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    cars.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error querying cars: " + e.getMessage());
+        }
+        return cars;
+    }
+
+    /**
+     * Count rows per value of a column or expression (nulls skipped).
+     * The expression is always a constant from this class, never user input.
+     */
+    private <K> Map<K, Integer> countBy(String expression, String where, Object[] params, Class<K> type) {
+        Map<K, Integer> counts = new HashMap<>();
+        String sql = "SELECT " + expression + ", COUNT(*) FROM cars" + where
+            + (where.isEmpty() ? " WHERE " : " AND ") + expression + " IS NOT NULL"
+            + " GROUP BY " + expression;
+        try (Connection conn = database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getObject(1, type), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting car facets: " + e.getMessage());
+        }
+        return counts;
+    }
+
+    /**
+     * CASE expression mapping price to the CarFacets bucket index
+     */
+    private static String priceBucketExpression() {
+        StringBuilder sb = new StringBuilder("CASE");
+        int last = CarFacets.getPriceBucketCount() - 1;
+        for (int bucket = 0; bucket < last; bucket++) {
+            sb.append(" WHEN price < ").append(BigDecimal.valueOf(CarFacets.getPriceBucketHigh(bucket)).toPlainString())
+              .append(" THEN ").append(bucket);
+        }
+        return sb.append(" ELSE ").append(last).append(" END").toString();
+    }
+
+    private static Car mapRow(ResultSet rs) throws SQLException {
+        return new Car(
+            rs.getInt("id"),
+            rs.getString("make"),
+            rs.getString("model"),
+            rs.getInt("model_year"),
+            rs.getBigDecimal("price"),
+            rs.getString("category"),
+            rs.getString("color"),
+            rs.getInt("mpg"),
+            rs.getString("image_path"),
+            rs.getString("notes"),
+            rs.getBoolean("available"),
+            rs.getObject("created_at", LocalDateTime.class)
+        );
+    }
+
+    private static void bindCar(PreparedStatement ps, Car car, String searchText) throws SQLException {
+        ps.setInt(1, car.getId());
+        ps.setString(2, car.getMake());
+        ps.setString(3, car.getModel());
+        ps.setInt(4, car.getYear());
+        ps.setBigDecimal(5, car.getPriceBigDecimal());
+        ps.setString(6, car.getCategory());
+        ps.setString(7, car.getColor());
+        ps.setInt(8, car.getMpg());
+        ps.setString(9, car.getImagePath());
+        ps.setString(10, car.getNotes());
+        ps.setBoolean(11, car.isAvailable());
+        ps.setObject(12, car.getCreatedAt() != null ? car.getCreatedAt() : LocalDateTime.now());
+        ps.setString(13, searchText);
+    }
+
+    /**
+     * Lowercase the searchable fields with Java's rules so SQL matching
+     * agrees exactly with the in-memory search
+     */
+    private static String buildSearchText(Car car) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(lower(car.getMake())).append(FIELD_SEPARATOR);
+        sb.append(lower(car.getModel())).append(FIELD_SEPARATOR);
+        sb.append(lower(car.getCategory())).append(FIELD_SEPARATOR);
+        sb.append(lower(car.getColor())).append(FIELD_SEPARATOR);
+        sb.append(car.getYear());
+        return sb.toString();
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase() : "";
+    }
+
+    private static String likePattern(String lowerQuery) {
+        return "%" + escapeLike(lowerQuery) + "%";
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.vismera.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Embedded H2 database connection provider.
+ * Hands out connections from a small pool so DAOs never open a new
+ * physical connection per query.
+ *
+ * The database file defaults to ~/.vismera/catalog and can be overridden
+ * with the vismera.catalog.url system property.
+ *
+ * @author Vismerá Inc.
+ */
+public class DatabaseConnection {
+
+    private static final String DEFAULT_URL = "jdbc:h2:~/.vismera/catalog";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+    private static final int MAX_CONNECTIONS = 4;
+
+    private static DatabaseConnection instance;
+    private final JdbcConnectionPool pool;
+
+    private DatabaseConnection() {
+        String url = System.getProperty("vismera.catalog.url", DEFAULT_URL);
+        pool = JdbcConnectionPool.create(url, USER, PASSWORD);
+        pool.setMaxConnections(MAX_CONNECTIONS);
+
+        // Release pooled connections so H2 can close the database file cleanly
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::dispose, "catalog-db-shutdown"));
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static DatabaseConnection getInstance() {
+        if (instance == null) {
+            instance = new DatabaseConnection();
+        }
+        return instance;
+    }
+
+    /**
+     * Borrow a connection from the pool. Closing it returns it to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    /**
+     * Get the number of connections currently borrowed
+     */
+    public int getActiveConnections() {
+        return pool.getActiveConnections();
+    }
+}
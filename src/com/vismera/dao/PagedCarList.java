@@ -0,0 +1,74 @@
+package com.vismera.dao;
+
+import com.vismera.models.Car;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list over a car query in ID order that reads its rows a page at
+ * a time, so memory stays flat however many cars match.
+ *
+ * The size is counted when the list is created. A page is read after the
+ * last ID of the page before it when that page is cached (keyset paging),
+ * otherwise with an offset; only the most recently used pages are kept.
+ * Cars deleted after the count leave null at the end of the list until the
+ * list is replaced by a new query.
+ *
+ * @author Vismerá Inc.
+ */
+final class PagedCarList extends AbstractList<Car> implements RandomAccess {
+
+    static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 8;
+
+    /**
+     * Reads one page of at most {@link #PAGE_SIZE} cars
+     */
+    interface PageLoader {
+        /**
+         * @param offset number of matching cars to skip, used when afterId is null
+         * @param afterId ID of the last car of the previous page, or null
+         */
+        List<Car> load(int offset, Integer afterId);
+    }
+
+    private final int size;
+    private final PageLoader loader;
+    private final Map<Integer, List<Car>> pages = new LinkedHashMap<Integer, List<Car>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Car>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    PagedCarList(int size, PageLoader loader) {
+        this.size = size;
+        this.loader = loader;
+    }
+
+    @Override
+    public synchronized Car get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Car " + index + " of " + size);
+        }
+        int page = index / PAGE_SIZE;
+        List<Car> cars = pages.get(page);
+        if (cars == null) {
+            List<Car> previous = page > 0 ? pages.get(page - 1) : null;
+            cars = previous != null && previous.size() == PAGE_SIZE
+                ? loader.load(page * PAGE_SIZE, previous.get(PAGE_SIZE - 1).getId())
+                : loader.load(page * PAGE_SIZE, null);
+            pages.put(page, cars);
+        }
+        int position = index - page * PAGE_SIZE;
+        return position < cars.size() ? cars.get(position) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
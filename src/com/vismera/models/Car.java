@@ -11,6 +11,9 @@ import java.time.LocalDateTime;
  */
 public class Car {
     
+    /** Lowest price that no longer fits DECIMAL(15,2) once rounded to centavos */
+    private static final BigDecimal PRICE_LIMIT = new BigDecimal("9999999999999.995");
+
     private int id;
     private String make;
     private String model;
@@ -232,13 +235,14 @@ public class Car {
     }
     
     /**
-     * Check if car has required fields
+     * Check if car has required fields and a price the catalog table can store
      */
     public boolean isValid() {
         return make != null && !make.trim().isEmpty() &&
                model != null && !model.trim().isEmpty() &&
                year > 1900 && year <= 2100 &&
-               price != null && price.compareTo(BigDecimal.ZERO) > 0;
+               price != null && price.compareTo(BigDecimal.ZERO) > 0 &&
+               price.compareTo(PRICE_LIMIT) < 0;
     }
 
     @Override
@@ -2,6 +2,8 @@ package com.vismera.models;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
 
 /**
  * Model class for loan calculation parameters and results.
@@ -9,6 +11,9 @@ import java.util.List;
  * @author Vismerá Inc.
  */
 public class LoanCalculation {
+    /** Remaining balance at which the schedule counts the loan as paid off */
+    private static final double PAID_OFF_BALANCE = 0.01;
+
     // Input fields
     private double carPrice;
     private double salesTaxRate; // as percentage (e.g., 8.0 for 8%)
@@ -81,10 +86,63 @@ public class LoanCalculation {
         double principal = calculateAmountFinanced();
         if (principal <= 0) return 0;
 
-        int totalMonths = loanTermYears * 12;
+        long totalMonths = loanTermYears * 12L;
+        if (totalMonths <= 0) return 0;
+
+        double monthlyRate = calculateMonthlyRate();
+
+        if (monthlyRate == 0) {
+            return principal / totalMonths;
+        }
+
+        // Standard amortization formula
+        this.monthlyPayment = principal * annuityFactor(monthlyRate, totalMonths);
+        return this.monthlyPayment;
+    }
+
+    /**
+     * Calculate the monthly payment this loan would have at another car price,
+     * without changing the loan
+     */
+    public double calculateMonthlyPayment(double price) {
+        double totalCost = price + price * (salesTaxRate / 100.0) + registrationFee;
+        double principal = Math.max(0, totalCost - (downPayment + tradeInValue));
+        if (principal <= 0) return 0;
+
+        long totalMonths = loanTermYears * 12L;
         if (totalMonths <= 0) return 0;
 
-        // Convert annual rate to effective monthly rate based on compounding frequency
+        double monthlyRate = calculateMonthlyRate();
+        if (monthlyRate == 0) {
+            return principal / totalMonths;
+        }
+        return principal * annuityFactor(monthlyRate, totalMonths);
+    }
+
+    /**
+     * Calculate the highest car price whose monthly payment fits the budget,
+     * keeping this loan's tax, fees, down payment, trade-in, rate and term.
+     * Inverts the payment formula: P = M / factor, then
+     * price = (P + down payment + trade-in - fee) / (1 + tax rate).
+     * @return the price limit, negative if no price fits
+     */
+    public double calculateMaxCarPrice(double monthlyBudget) {
+        if (monthlyBudget < 0) return -1;
+
+        long totalMonths = loanTermYears * 12L;
+        if (totalMonths <= 0) return Double.POSITIVE_INFINITY;
+
+        double monthlyRate = calculateMonthlyRate();
+        double maxPrincipal = monthlyRate == 0
+            ? monthlyBudget * totalMonths
+            : monthlyBudget / annuityFactor(monthlyRate, totalMonths);
+        return (maxPrincipal + downPayment + tradeInValue - registrationFee) / (1 + salesTaxRate / 100.0);
+    }
+
+    /**
+     * Convert the annual rate to an effective monthly rate based on compounding frequency
+     */
+    public double calculateMonthlyRate() {
         double annualRate = annualInterestRate / 100.0;
         int compoundingPeriods = getCompoundingPeriodsPerYear();
         
@@ -92,18 +150,18 @@ public class LoanCalculation {
         double effectiveAnnualRate = Math.pow(1 + (annualRate / compoundingPeriods), compoundingPeriods) - 1;
         
         // Convert to monthly rate
-        double monthlyRate = Math.pow(1 + effectiveAnnualRate, 1.0 / 12.0) - 1;
+        return Math.pow(1 + effectiveAnnualRate, 1.0 / 12.0) - 1;
+    }
 
-        if (monthlyRate == 0) {
-            return principal / totalMonths;
+    private static double annuityFactor(double monthlyRate, long totalMonths) {
+        double growth = Math.pow(1 + monthlyRate, totalMonths);
+        if (Double.isInfinite(growth)) {
+            // Very long terms: the payment tends to the interest alone
+            return monthlyRate;
         }
-
-        // Standard amortization formula
-        double numerator = monthlyRate * Math.pow(1 + monthlyRate, totalMonths);
-        double denominator = Math.pow(1 + monthlyRate, totalMonths) - 1;
-        
-        this.monthlyPayment = principal * (numerator / denominator);
-        return this.monthlyPayment;
+        double numerator = monthlyRate * growth;
+        double denominator = growth - 1;
+        return numerator / denominator;
     }
 
     /**
@@ -130,12 +188,122 @@ public class LoanCalculation {
      * Generate the complete amortization schedule with penalties
      */
     public List<AmortizationEntry> generateAmortizationSchedule() {
-        amortizationSchedule = new ArrayList<>();
+        return generateAmortizationSchedule(null);
+    }
+
+    /**
+     * Generate the schedule, reporting progress in percent to the listener.
+     * With a listener, an interrupt of the calling thread stops the run with
+     * a CancellationException and leaves the previous schedule in place.
+     */
+    public List<AmortizationEntry> generateAmortizationSchedule(IntConsumer progress) {
+        List<AmortizationEntry> schedule = new ArrayList<>();
         
         double principal = calculateAmountFinanced();
-        if (principal <= 0) return amortizationSchedule;
+        if (principal <= 0) {
+            amortizationSchedule = schedule;
+            return schedule;
+        }
+
+        LoanSummary summary = simulate(principal, schedule, progress);
+        
+        this.amortizationSchedule = schedule;
+        this.totalInterest = summary.getTotalInterest();
+        this.totalPenalties = summary.getTotalPenalties();
+        this.totalAmountPaid = summary.getTotalAmountPaid();
+        if (progress != null) {
+            progress.accept(100);
+        }
+        
+        return schedule;
+    }
 
-        int totalMonths = loanTermYears * 12;
+    /**
+     * Calculate the payment, totals and payoff month the schedule would have,
+     * without building it or changing the cached schedule and totals.
+     * Uses closed forms of the simulation, so the cost does not depend on
+     * the term: missed months grow the balance geometrically, and the
+     * payoff month with extra payments is the first month whose remaining
+     * balance B(1+r)^k - A((1+r)^k - 1)/r is paid down.
+     */
+    public LoanSummary calculateSummary() {
+        double principal = calculateAmountFinanced();
+        if (principal <= 0) {
+            return new LoanSummary(0, 0, 0, 0, 0);
+        }
+        double payment = calculateMonthlyPayment();
+        long totalMonths = loanTermYears * 12L;
+        // Same month limit as the simulation, including its safety stop at twice the term
+        long months = Math.min(totalMonths + missedPayments, Math.max(1, totalMonths * 2));
+        if (principal <= PAID_OFF_BALANCE || months <= 0) {
+            return new LoanSummary(payment, 0, 0, 0, 0);
+        }
+        double monthlyRate = calculateMonthlyRate();
+
+        // Missed payments: interest capitalizes and a penalty is charged on the balance
+        long missed = Math.max(0, Math.min(missedPayments, months));
+        double balance = principal * Math.pow(1 + monthlyRate, missed);
+        double totalInterest = balance - principal;
+        double totalPenalties = (penaltyRate / 100.0)
+            * (monthlyRate == 0 ? principal * missed : totalInterest / monthlyRate);
+        double totalPaid = totalPenalties;
+
+        long remaining = months - missed;
+        long paid = 0;
+        double adjustedPayment = payment + extraPaymentPerMonth;
+        if (remaining > 0 && balance > PAID_OFF_BALANCE) {
+            if (adjustedPayment <= balance * monthlyRate) {
+                // The payment never covers the interest, so the balance stays where it is
+                paid = remaining;
+                totalPaid += paid * adjustedPayment;
+                totalInterest += paid * balance * monthlyRate;
+            } else {
+                paid = Math.min(remaining, paymentsToPayOff(balance, adjustedPayment, monthlyRate));
+                double beforeLast = balanceAfter(balance, adjustedPayment, monthlyRate, paid - 1);
+                double lastPayment = Math.min(adjustedPayment, beforeLast * (1 + monthlyRate));
+                double finalBalance = beforeLast * (1 + monthlyRate) - lastPayment;
+                double normalPaid = (paid - 1) * adjustedPayment + lastPayment;
+                totalPaid += normalPaid;
+                totalInterest += normalPaid - (balance - finalBalance);
+            }
+        }
+        int payoffMonth = (int) Math.min(Integer.MAX_VALUE, missed + paid);
+        return new LoanSummary(payment, totalInterest, totalPenalties, totalPaid, payoffMonth);
+    }
+
+    /**
+     * Number of payments after which the balance is at most the paid-off
+     * threshold, for a payment that more than covers the first month's interest
+     */
+    private static long paymentsToPayOff(double balance, double payment, double monthlyRate) {
+        double estimate = monthlyRate == 0
+            ? (balance - PAID_OFF_BALANCE) / payment
+            : Math.log((payment / monthlyRate - PAID_OFF_BALANCE) / (payment / monthlyRate - balance))
+                / Math.log1p(monthlyRate);
+        long payments = Math.max(1, (long) Math.ceil(estimate));
+        // The logarithm can land one month off when the balance ends right at the threshold
+        if (payments > 1 && balanceAfter(balance, payment, monthlyRate, payments - 1) <= PAID_OFF_BALANCE) {
+            payments--;
+        } else if (balanceAfter(balance, payment, monthlyRate, payments) > PAID_OFF_BALANCE) {
+            payments++;
+        }
+        return payments;
+    }
+
+    private static double balanceAfter(double balance, double payment, double monthlyRate, long payments) {
+        if (monthlyRate == 0) {
+            return balance - payments * payment;
+        }
+        double growth = Math.pow(1 + monthlyRate, payments);
+        return balance * growth - payment * (growth - 1) / monthlyRate;
+    }
+
+    /**
+     * Run the payment-by-payment simulation behind the schedule. Entries are
+     * recorded only when a schedule list is given.
+     */
+    private LoanSummary simulate(double principal, List<AmortizationEntry> schedule, IntConsumer progress) {
+        long totalMonths = loanTermYears * 12L;
         double payment = calculateMonthlyPayment();
         
         // Adjust payment for extra payments
@@ -153,8 +321,21 @@ public class LoanCalculation {
         double cumulativePenalties = 0;
         
         int paymentNum = 1;
+        long maxPayments = totalMonths + missedPayments;
+        int reportedPercent = -1;
         
-        while (balance > 0.01 && paymentNum <= totalMonths + missedPayments) {
+        while (balance > PAID_OFF_BALANCE && paymentNum <= maxPayments) {
+            if (progress != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Schedule generation cancelled");
+                }
+                int percent = (int) ((paymentNum - 1) * 100L / maxPayments);
+                if (percent != reportedPercent) {
+                    reportedPercent = percent;
+                    progress.accept(percent);
+                }
+            }
+
             double interestPayment = balance * monthlyRate;
             double penalty = 0;
             double principalPayment;
@@ -184,28 +365,26 @@ public class LoanCalculation {
             cumulativeInterest += interestPayment;
             cumulativePaid += currentPayment + penalty;
             
-            AmortizationEntry entry = new AmortizationEntry(
-                paymentNum,
-                currentPayment,
-                principalPayment,
-                interestPayment,
-                penalty,
-                balance,
-                cumulativePaid
-            );
-            
-            amortizationSchedule.add(entry);
+            if (schedule != null) {
+                AmortizationEntry entry = new AmortizationEntry(
+                    paymentNum,
+                    currentPayment,
+                    principalPayment,
+                    interestPayment,
+                    penalty,
+                    balance,
+                    cumulativePaid
+                );
+                
+                schedule.add(entry);
+            }
             paymentNum++;
             
             // Safety check to prevent infinite loops
             if (paymentNum > totalMonths * 2) break;
         }
         
-        this.totalInterest = cumulativeInterest;
-        this.totalPenalties = cumulativePenalties;
-        this.totalAmountPaid = cumulativePaid;
-        
-        return amortizationSchedule;
+        return new LoanSummary(payment, cumulativeInterest, cumulativePenalties, cumulativePaid, paymentNum - 1);
     }
 
     /**
@@ -0,0 +1,34 @@
+package com.vismera.models;
+
+/**
+ * Headline results of a loan calculation without the payment schedule:
+ * monthly payment, totals and the month the loan is paid off.
+ * @author Vismerá Inc.
+ */
+public class LoanSummary {
+    private final double monthlyPayment;
+    private final double totalInterest;
+    private final double totalPenalties;
+    private final double totalAmountPaid;
+    private final int payoffMonth;
+
+    public LoanSummary(double monthlyPayment, double totalInterest, double totalPenalties,
+                       double totalAmountPaid, int payoffMonth) {
+        this.monthlyPayment = monthlyPayment;
+        this.totalInterest = totalInterest;
+        this.totalPenalties = totalPenalties;
+        this.totalAmountPaid = totalAmountPaid;
+        this.payoffMonth = payoffMonth;
+    }
+
+    // Getters
+    public double getMonthlyPayment() { return monthlyPayment; }
+    public double getTotalInterest() { return totalInterest; }
+    public double getTotalPenalties() { return totalPenalties; }
+    public double getTotalAmountPaid() { return totalAmountPaid; }
+
+    /**
+     * Number of the last payment in the schedule, or 0 if nothing is financed
+     */
+    public int getPayoffMonth() { return payoffMonth; }
+}
@@ -0,0 +1,246 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the in-memory car catalog.
+ * Readers share one snapshot with no copying or locking; writers build a
+ * new snapshot and publish it as a whole (copy-on-write).
+ *
+ * Car IDs map to row positions through a primitive int map. Facet counts
+ * are carried over from the previous snapshot and adjusted by the changed
+ * car. The search, price, facet and fuzzy indexes are built on first use,
+ * or all at once by {@link #buildIndexes()}, which writers call before
+ * publishing a snapshot so no search has to build them.
+ *
+ * Car objects are shared between snapshots and must not be mutated after
+ * they are published; writers pass new instances instead.
+ *
+ * @author Vismerá Inc.
+ */
+public final class CarCatalog {
+
+    private final Car[] cars;
+    private final List<Car> view;
+    private final IntIntHashMap rowsById;
+    private final CarFacets facets;
+    private volatile CarSearchIndex searchIndex;
+    private volatile CarPriceIndex priceIndex;
+    private volatile CarFacetIndex facetIndex;
+    private volatile CarFuzzyIndex fuzzyIndex;
+
+    /**
+     * Create a snapshot from the given cars. The array is copied; later
+     * changes to the list do not affect the snapshot.
+     */
+    public CarCatalog(List<Car> cars) {
+        this(cars.toArray(new Car[0]), null);
+    }
+
+    private CarCatalog(Car[] cars, CarFacets facets) {
+        this.cars = cars;
+        this.view = Collections.unmodifiableList(Arrays.asList(cars));
+        this.rowsById = new IntIntHashMap(cars.length);
+        for (int row = 0; row < cars.length; row++) {
+            rowsById.put(cars[row].getId(), row);
+        }
+        this.facets = facets != null ? facets : CarFacets.of(view);
+    }
+
+    /**
+     * Get an empty catalog
+     */
+    public static CarCatalog empty() {
+        return new CarCatalog(new Car[0], null);
+    }
+
+    // ==================== READS ====================
+
+    /**
+     * Get all cars as a read-only list backed by the snapshot (no copy)
+     */
+    public List<Car> getCars() {
+        return view;
+    }
+
+    /**
+     * Get a car by its ID, or null if not found
+     */
+    public Car getById(int id) {
+        int row = rowsById.get(id, -1);
+        return row >= 0 ? cars[row] : null;
+    }
+
+    /**
+     * Get the catalog row of a car ID, or -1 if not found
+     */
+    public int rowOf(int id) {
+        return rowsById.get(id, -1);
+    }
+
+    public Car getRow(int row) {
+        return cars[row];
+    }
+
+    public int size() {
+        return cars.length;
+    }
+
+    /**
+     * Get the facet counts for the whole catalog
+     */
+    public CarFacets getFacets() {
+        return facets;
+    }
+
+    /**
+     * Get the n-gram search index, building it on first use
+     */
+    public CarSearchIndex getSearchIndex() {
+        CarSearchIndex index = searchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = searchIndex;
+                if (index == null) {
+                    index = new CarSearchIndex(view);
+                    searchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Get the price index, building it on first use
+     */
+    public CarPriceIndex getPriceIndex() {
+        CarPriceIndex index = priceIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = priceIndex;
+                if (index == null) {
+                    index = new CarPriceIndex(view);
+                    priceIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Get the row-level facet index, building it on first use
+     */
+    public CarFacetIndex getFacetIndex() {
+        CarFacetIndex index = facetIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = facetIndex;
+                if (index == null) {
+                    index = new CarFacetIndex(view);
+                    facetIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Get the typo-tolerant search index, building it on first use
+     */
+    public CarFuzzyIndex getFuzzyIndex() {
+        CarFuzzyIndex index = fuzzyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = fuzzyIndex;
+                if (index == null) {
+                    index = new CarFuzzyIndex(view);
+                    fuzzyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Build every index now instead of on first use
+     * @return this snapshot
+     */
+    public CarCatalog buildIndexes() {
+        getSearchIndex();
+        getPriceIndex();
+        getFacetIndex();
+        getFuzzyIndex();
+        return this;
+    }
+
+    // ==================== COPY-ON-WRITE ====================
+
+    /**
+     * Return a new snapshot with the car added, or replacing the car with the same ID
+     */
+    public CarCatalog withCar(Car car) {
+        int row = rowsById.get(car.getId(), -1);
+        Car[] next;
+        CarFacets nextFacets;
+        if (row >= 0) {
+            next = cars.clone();
+            next[row] = car;
+            nextFacets = facets.replacing(cars[row], car);
+        } else {
+            next = Arrays.copyOf(cars, cars.length + 1);
+            next[cars.length] = car;
+            nextFacets = facets.withCar(car);
+        }
+        return new CarCatalog(next, nextFacets);
+    }
+
+    /**
+     * Return a new snapshot with a batch of cars added or replaced by ID.
+     * The array, ID map and facet counts are copied once for the whole batch.
+     */
+    public CarCatalog withCars(Collection<Car> incoming) {
+        if (incoming.isEmpty()) {
+            return this;
+        }
+        Car[] next = Arrays.copyOf(cars, cars.length + incoming.size());
+        int size = cars.length;
+        IntIntHashMap appendedRows = new IntIntHashMap(incoming.size());
+        List<Car> replaced = new ArrayList<>();
+        for (Car car : incoming) {
+            int row = rowsById.get(car.getId(), -1);
+            if (row < 0) {
+                row = appendedRows.get(car.getId(), -1);
+            }
+            if (row >= 0) {
+                replaced.add(next[row]);
+                next[row] = car;
+            } else {
+                appendedRows.put(car.getId(), size);
+                next[size++] = car;
+            }
+        }
+        if (size < next.length) {
+            next = Arrays.copyOf(next, size);
+        }
+        return new CarCatalog(next, facets.withChanges(replaced, incoming));
+    }
+
+    /**
+     * Return a new snapshot without the car with the given ID (this snapshot if absent)
+     */
+    public CarCatalog withoutCar(int id) {
+        int row = rowsById.get(id, -1);
+        if (row < 0) {
+            return this;
+        }
+        Car[] next = new Car[cars.length - 1];
+        System.arraycopy(cars, 0, next, 0, row);
+        System.arraycopy(cars, row + 1, next, row, cars.length - row - 1);
+        return new CarCatalog(next, facets.withoutCar(cars[row]));
+    }
+}
@@ -0,0 +1,129 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Compact description of what changed between two versions of the car
+ * catalog: the IDs of added, removed and changed cars. Views use it to
+ * rebuild only the affected cards instead of everything.
+ *
+ * @author Vismerá Inc.
+ */
+public final class CarCatalogChange {
+
+    private static final int[] NO_IDS = new int[0];
+    private static final CarCatalogChange NONE = new CarCatalogChange(NO_IDS, NO_IDS, NO_IDS);
+
+    private final int[] addedIds;
+    private final int[] removedIds;
+    private final int[] changedIds;
+
+    public CarCatalogChange(int[] addedIds, int[] removedIds, int[] changedIds) {
+        this.addedIds = addedIds;
+        this.removedIds = removedIds;
+        this.changedIds = changedIds;
+    }
+
+    /**
+     * Get the change for a catalog that did not change
+     */
+    public static CarCatalogChange none() {
+        return NONE;
+    }
+
+    public static CarCatalogChange added(int id) {
+        return new CarCatalogChange(new int[] { id }, NO_IDS, NO_IDS);
+    }
+
+    public static CarCatalogChange removed(int id) {
+        return new CarCatalogChange(NO_IDS, new int[] { id }, NO_IDS);
+    }
+
+    public static CarCatalogChange changed(int id) {
+        return new CarCatalogChange(NO_IDS, NO_IDS, new int[] { id });
+    }
+
+    /**
+     * Compare two snapshots by car ID. Cars shared by both snapshots are
+     * skipped without looking at their fields.
+     */
+    public static CarCatalogChange between(CarCatalog before, CarCatalog after) {
+        if (before == after) {
+            return NONE;
+        }
+        IntStream.Builder added = IntStream.builder();
+        IntStream.Builder changed = IntStream.builder();
+        for (int row = 0; row < after.size(); row++) {
+            Car car = after.getRow(row);
+            int oldRow = before.rowOf(car.getId());
+            if (oldRow < 0) {
+                added.add(car.getId());
+            } else if (!sameDetails(before.getRow(oldRow), car)) {
+                changed.add(car.getId());
+            }
+        }
+        IntStream.Builder removed = IntStream.builder();
+        for (int row = 0; row < before.size(); row++) {
+            int id = before.getRow(row).getId();
+            if (after.rowOf(id) < 0) {
+                removed.add(id);
+            }
+        }
+        return new CarCatalogChange(added.build().toArray(), removed.build().toArray(), changed.build().toArray());
+    }
+
+    /**
+     * IDs of cars that are new in the catalog (read-only)
+     */
+    public int[] getAddedIds() {
+        return addedIds;
+    }
+
+    /**
+     * IDs of cars no longer in the catalog (read-only)
+     */
+    public int[] getRemovedIds() {
+        return removedIds;
+    }
+
+    /**
+     * IDs of cars whose details changed (read-only)
+     */
+    public int[] getChangedIds() {
+        return changedIds;
+    }
+
+    public boolean isEmpty() {
+        return addedIds.length == 0 && removedIds.length == 0 && changedIds.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return addedIds.length + " added, " + removedIds.length + " removed, " + changedIds.length + " changed";
+    }
+
+    private static boolean sameDetails(Car a, Car b) {
+        if (a == b) {
+            return true;
+        }
+        return a.getYear() == b.getYear()
+            && a.getMpg() == b.getMpg()
+            && a.isAvailable() == b.isAvailable()
+            && Objects.equals(a.getMake(), b.getMake())
+            && Objects.equals(a.getModel(), b.getModel())
+            && Objects.equals(a.getCategory(), b.getCategory())
+            && Objects.equals(a.getColor(), b.getColor())
+            && Objects.equals(a.getImagePath(), b.getImagePath())
+            && Objects.equals(a.getNotes(), b.getNotes())
+            && samePrice(a, b);
+    }
+
+    private static boolean samePrice(Car a, Car b) {
+        if (a.getPriceBigDecimal() == null || b.getPriceBigDecimal() == null) {
+            return a.getPriceBigDecimal() == b.getPriceBigDecimal();
+        }
+        return a.getPriceBigDecimal().compareTo(b.getPriceBigDecimal()) == 0;
+    }
+}
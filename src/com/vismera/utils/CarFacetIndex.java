@@ -0,0 +1,211 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import com.vismera.utils.CarFacets.Dimension;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row-level facet index for one catalog snapshot.
+ * Stores each row's facet value as a small ordinal per dimension, and builds
+ * a bitset (one bit per row) for a facet value the first time it is used as
+ * a filter. Search results and filters are combined by AND-ing bitsets, and
+ * facet counts for the combined selection are tallied from the ordinals of
+ * the set bits only. Categories and makes that differ only in case share an
+ * ordinal, so counts agree with the case-insensitive filter masks.
+ *
+ * @author Vismerá Inc.
+ */
+public final class CarFacetIndex {
+
+    private static final Comparator<Object> IGNORE_CASE =
+        (a, b) -> String.CASE_INSENSITIVE_ORDER.compare((String) a, (String) b);
+
+    private final int size;
+    private final int words;
+    private final int[][] ordinals;   // [dimension][row], -1 when the car has no value
+    private final Object[][] values;  // [dimension][ordinal]
+    private final Map<String, long[]> maskCache = new ConcurrentHashMap<>();
+
+    /**
+     * Build the ordinals for the given cars. Row ids are list positions.
+     */
+    public CarFacetIndex(List<Car> cars) {
+        this.size = cars.size();
+        this.words = (size + 63) >>> 6;
+        Dimension[] dimensions = Dimension.values();
+        this.ordinals = new int[dimensions.length][size];
+        this.values = new Object[dimensions.length][];
+
+        for (Dimension dimension : dimensions) {
+            Map<Object, Integer> ids = dimension == Dimension.CATEGORY || dimension == Dimension.MAKE
+                ? new TreeMap<>(IGNORE_CASE) : new HashMap<>();
+            int[] rowOrdinals = ordinals[dimension.ordinal()];
+            for (int row = 0; row < size; row++) {
+                Object value = valueOf(cars.get(row), dimension);
+                if (value == null) {
+                    rowOrdinals[row] = -1;
+                } else {
+                    Integer id = ids.get(value);
+                    if (id == null) {
+                        id = ids.size();
+                        ids.put(value, id);
+                    }
+                    rowOrdinals[row] = id;
+                }
+            }
+            Object[] dimensionValues = new Object[ids.size()];
+            for (Map.Entry<Object, Integer> entry : ids.entrySet()) {
+                dimensionValues[entry.getValue()] = entry.getKey();
+            }
+            values[dimension.ordinal()] = dimensionValues;
+        }
+    }
+
+    // ==================== MASKS ====================
+
+    /**
+     * Get a mask with every row set
+     */
+    public long[] allRows() {
+        long[] mask = new long[words];
+        for (int i = 0; i < size; i++) {
+            mask[i >>> 6] |= 1L << i;
+        }
+        return mask;
+    }
+
+    /**
+     * Get a mask with the given rows set (e.g. the rows of a search result)
+     */
+    public long[] maskOf(int[] rows) {
+        long[] mask = new long[words];
+        for (int row : rows) {
+            mask[row >>> 6] |= 1L << row;
+        }
+        return mask;
+    }
+
+    /**
+     * Get the shared, read-only mask of rows whose facet value matches.
+     * Category and make compare case-insensitively; a year is given as its
+     * number and a price bucket as its index (both as strings or numbers).
+     */
+    public long[] mask(Dimension dimension, Object value) {
+        String key = dimension + ":" + String.valueOf(value).toLowerCase();
+        return maskCache.computeIfAbsent(key, k -> buildMask(dimension, value));
+    }
+
+    /**
+     * AND the second mask into the first
+     */
+    public static void and(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    /**
+     * Convert a mask to ascending row ids
+     */
+    public int[] toRows(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        int[] rows = new int[count];
+        int n = 0;
+        for (int w = 0; w < mask.length; w++) {
+            long word = mask[w];
+            while (word != 0) {
+                rows[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return rows;
+    }
+
+    // ==================== COUNTS ====================
+
+    /**
+     * Count facets over the rows set in the mask
+     */
+    public CarFacets count(long[] mask) {
+        Dimension[] dimensions = Dimension.values();
+        int[][] tallies = new int[dimensions.length][];
+        for (Dimension dimension : dimensions) {
+            tallies[dimension.ordinal()] = new int[values[dimension.ordinal()].length];
+        }
+        for (int w = 0; w < mask.length; w++) {
+            long word = mask[w];
+            while (word != 0) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                for (int d = 0; d < dimensions.length; d++) {
+                    int ordinal = ordinals[d][row];
+                    if (ordinal >= 0) {
+                        tallies[d][ordinal]++;
+                    }
+                }
+            }
+        }
+
+        Map<String, Integer> categories = new HashMap<>();
+        Map<String, Integer> makes = new HashMap<>();
+        Map<Integer, Integer> years = new HashMap<>();
+        int[] buckets = new int[CarFacets.getPriceBucketCount()];
+        collect(Dimension.CATEGORY, tallies, categories);
+        collect(Dimension.MAKE, tallies, makes);
+        collect(Dimension.YEAR, tallies, years);
+        Object[] bucketValues = values[Dimension.PRICE.ordinal()];
+        for (int ordinal = 0; ordinal < bucketValues.length; ordinal++) {
+            buckets[(Integer) bucketValues[ordinal]] = tallies[Dimension.PRICE.ordinal()][ordinal];
+        }
+        return new CarFacets(categories, makes, years, buckets);
+    }
+
+    // ==================== HELPERS ====================
+
+    private long[] buildMask(Dimension dimension, Object value) {
+        String wanted = String.valueOf(value);
+        Object[] dimensionValues = values[dimension.ordinal()];
+        boolean[] matches = new boolean[dimensionValues.length];
+        for (int ordinal = 0; ordinal < dimensionValues.length; ordinal++) {
+            matches[ordinal] = String.valueOf(dimensionValues[ordinal]).equalsIgnoreCase(wanted);
+        }
+        long[] mask = new long[words];
+        int[] rowOrdinals = ordinals[dimension.ordinal()];
+        for (int row = 0; row < size; row++) {
+            int ordinal = rowOrdinals[row];
+            if (ordinal >= 0 && matches[ordinal]) {
+                mask[row >>> 6] |= 1L << row;
+            }
+        }
+        return mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> void collect(Dimension dimension, int[][] tallies, Map<K, Integer> target) {
+        Object[] dimensionValues = values[dimension.ordinal()];
+        int[] counts = tallies[dimension.ordinal()];
+        for (int ordinal = 0; ordinal < dimensionValues.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                target.put((K) dimensionValues[ordinal], counts[ordinal]);
+            }
+        }
+    }
+
+    private static Object valueOf(Car car, Dimension dimension) {
+        switch (dimension) {
+            case CATEGORY: return car.getCategory();
+            case MAKE: return car.getMake();
+            case YEAR: return car.getYear();
+            case PRICE:
+            default: return CarFacets.getPriceBucket(car.getPrice());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Facet counts for catalog navigation: cars per category, make, year and
+ * price bucket. Instances are immutable; adding or removing a car returns a
+ * new instance adjusted by that one car instead of recounting the catalog.
+ * Categories and makes are counted ignoring case, like the category filter,
+ * under the first spelling seen.
+ *
+ * @author Vismerá Inc.
+ */
+public final class CarFacets {
+
+    /**
+     * Facet dimensions shown on the cars screen
+     */
+    public enum Dimension { CATEGORY, MAKE, YEAR, PRICE }
+
+    private static final double[] PRICE_BUCKET_BOUNDS = {
+        1_000_000, 1_500_000, 2_000_000, 3_000_000, 5_000_000
+    };
+    private static final String[] PRICE_BUCKET_LABELS = {
+        "Under ₱1M", "₱1M - ₱1.5M", "₱1.5M - ₱2M", "₱2M - ₱3M", "₱3M - ₱5M", "₱5M and up"
+    };
+
+    private final TreeMap<String, Integer> categoryCounts; // ignoring case
+    private final TreeMap<String, Integer> makeCounts;     // ignoring case
+    private final TreeMap<Integer, Integer> yearCounts; // newest first
+    private final int[] priceBucketCounts;
+    private final int total;
+
+    /**
+     * Create facets from precomputed counts (e.g. SQL GROUP BY results)
+     */
+    public CarFacets(Map<String, Integer> categoryCounts, Map<String, Integer> makeCounts,
+                     Map<Integer, Integer> yearCounts, int[] priceBucketCounts) {
+        this.categoryCounts = countsIgnoringCase(categoryCounts);
+        this.makeCounts = countsIgnoringCase(makeCounts);
+        this.yearCounts = new TreeMap<>(Collections.reverseOrder());
+        this.yearCounts.putAll(yearCounts);
+        this.priceBucketCounts = priceBucketCounts.clone();
+        int sum = 0;
+        for (int count : priceBucketCounts) {
+            sum += count;
+        }
+        this.total = sum;
+    }
+
+    private CarFacets(CarFacets source, Collection<Car> removed, Collection<Car> added) {
+        this.categoryCounts = new TreeMap<>(source.categoryCounts);
+        this.makeCounts = new TreeMap<>(source.makeCounts);
+        this.yearCounts = new TreeMap<>(source.yearCounts);
+        this.priceBucketCounts = source.priceBucketCounts.clone();
+        this.total = source.total - removed.size() + added.size();
+        for (Car car : removed) {
+            count(car, -1);
+        }
+        for (Car car : added) {
+            count(car, 1);
+        }
+    }
+
+    private void count(Car car, int delta) {
+        adjust(categoryCounts, car.getCategory(), delta);
+        adjust(makeCounts, car.getMake(), delta);
+        adjust(yearCounts, car.getYear(), delta);
+        priceBucketCounts[getPriceBucket(car.getPrice())] += delta;
+    }
+
+    /**
+     * Count facets for a whole list of cars
+     */
+    public static CarFacets of(Iterable<Car> cars) {
+        TreeMap<String, Integer> categories = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        TreeMap<String, Integer> makes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        TreeMap<Integer, Integer> years = new TreeMap<>();
+        int[] buckets = new int[PRICE_BUCKET_LABELS.length];
+        for (Car car : cars) {
+            adjust(categories, car.getCategory(), 1);
+            adjust(makes, car.getMake(), 1);
+            adjust(years, car.getYear(), 1);
+            buckets[getPriceBucket(car.getPrice())]++;
+        }
+        return new CarFacets(categories, makes, years, buckets);
+    }
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    /**
+     * Return facets with one more car counted
+     */
+    public CarFacets withCar(Car car) {
+        return new CarFacets(this, Collections.<Car>emptyList(), Collections.singletonList(car));
+    }
+
+    /**
+     * Return facets with one car no longer counted
+     */
+    public CarFacets withoutCar(Car car) {
+        return new CarFacets(this, Collections.singletonList(car), Collections.<Car>emptyList());
+    }
+
+    /**
+     * Return facets with a car replaced by its updated version
+     */
+    public CarFacets replacing(Car oldCar, Car newCar) {
+        return new CarFacets(this, Collections.singletonList(oldCar), Collections.singletonList(newCar));
+    }
+
+    /**
+     * Return facets adjusted for a batch of changes in one copy
+     * (replaced cars appear in both collections)
+     */
+    public CarFacets withChanges(Collection<Car> removed, Collection<Car> added) {
+        return new CarFacets(this, removed, added);
+    }
+
+    // ==================== READS ====================
+
+    /**
+     * Cars per category, sorted by name
+     */
+    public Map<String, Integer> getCategoryCounts() {
+        return Collections.unmodifiableMap(categoryCounts);
+    }
+
+    /**
+     * Cars per make, sorted by name
+     */
+    public Map<String, Integer> getMakeCounts() {
+        return Collections.unmodifiableMap(makeCounts);
+    }
+
+    /**
+     * Cars per model year, newest first
+     */
+    public Map<Integer, Integer> getYearCounts() {
+        return Collections.unmodifiableMap(yearCounts);
+    }
+
+    /**
+     * Cars per price bucket, cheapest bucket first (empty buckets included)
+     */
+    public Map<String, Integer> getPriceBucketCounts() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < PRICE_BUCKET_LABELS.length; i++) {
+            result.put(PRICE_BUCKET_LABELS[i], priceBucketCounts[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of cars counted
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Format a facet value for display, e.g. "SUV (12,431)"
+     */
+    public static String formatLabel(Object value, int count) {
+        return value + " (" + FormatUtils.formatNumber(count) + ")";
+    }
+
+    // ==================== PRICE BUCKETS ====================
+
+    /**
+     * Get the price bucket index for a price
+     */
+    public static int getPriceBucket(double price) {
+        int bucket = 0;
+        while (bucket < PRICE_BUCKET_BOUNDS.length && price >= PRICE_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    public static int getPriceBucketCount() {
+        return PRICE_BUCKET_LABELS.length;
+    }
+
+    public static String getPriceBucketLabel(int bucket) {
+        return PRICE_BUCKET_LABELS[bucket];
+    }
+
+    /**
+     * Get the inclusive lower bound of a bucket (0 for the first bucket)
+     */
+    public static double getPriceBucketLow(int bucket) {
+        return bucket == 0 ? 0 : PRICE_BUCKET_BOUNDS[bucket - 1];
+    }
+
+    /**
+     * Get the exclusive upper bound of a bucket (infinity for the last bucket)
+     */
+    public static double getPriceBucketHigh(int bucket) {
+        return bucket < PRICE_BUCKET_BOUNDS.length ? PRICE_BUCKET_BOUNDS[bucket] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Copy counts into a case-insensitive map, adding up keys that differ
+     * only in case (e.g. a case-sensitive GROUP BY)
+     */
+    private static TreeMap<String, Integer> countsIgnoringCase(Map<String, Integer> counts) {
+        TreeMap<String, Integer> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            merged.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        return merged;
+    }
+
+    private static <K> void adjust(Map<K, Integer> counts, K key, int delta) {
+        if (key == null) {
+            return;
+        }
+        int count = counts.getOrDefault(key, 0) + delta;
+        if (count > 0) {
+            counts.put(key, count);
+        } else {
+            counts.remove(key);
+        }
+    }
+}
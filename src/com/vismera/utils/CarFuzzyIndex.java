@@ -0,0 +1,513 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typo-tolerant search over the words of the car fields.
+ *
+ * The distinct words of every car's make, model, category and color (plus
+ * the year) form a small vocabulary, even for a very large catalog. The
+ * vocabulary is kept in a BK-tree keyed by Levenshtein distance, so each
+ * query word only measures a fraction of the vocabulary. Each vocabulary word
+ * has a posting list of the rows that contain it.
+ *
+ * A car matches when every query word is close to one of its words (1 edit
+ * for words of 3-5 letters, 2 edits for longer words, where swapping two
+ * neighbouring letters counts as one edit; the last query word
+ * also matches as a prefix while the customer is still typing). Results are
+ * ranked by total edit distance, then catalog order.
+ *
+ * Queries run against a time budget. When it runs out, the words not yet
+ * processed are skipped and the best results found so far are returned.
+ *
+ * @author Vismerá Inc.
+ */
+public class CarFuzzyIndex {
+
+    private static final int NO_DISTANCE = Integer.MAX_VALUE;
+
+    /** Shared by every index, so a replaced snapshot leaves no arrays behind */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final List<Car> cars;
+    private final String[] terms;      // sorted, for prefix lookups
+    private final int[][] postings;    // rows ascending, parallel to terms
+    private final BkNode root;
+
+    /**
+     * Build the index for the given cars. Row ids are list positions.
+     */
+    public CarFuzzyIndex(List<Car> cars) {
+        this.cars = cars;
+        int size = cars.size();
+
+        // Tokenize each distinct field value once; makes, models and colors repeat a lot
+        Map<String, int[]> valueTerms = new HashMap<>();
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> termList = new ArrayList<>();
+        int[] rowStart = new int[size + 1];
+        int[] rowTerms = new int[Math.max(16, size * 6)];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            rowStart[row] = count;
+            Car car = cars.get(row);
+            String[] values = { car.getMake(), car.getModel(), car.getCategory(), car.getColor(),
+                                String.valueOf(car.getYear()) };
+            for (String value : values) {
+                if (value == null) {
+                    continue;
+                }
+                int[] termIds = valueTerms.computeIfAbsent(value, v -> {
+                    List<String> words = tokenize(v);
+                    int[] result = new int[words.size()];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = ids.computeIfAbsent(words.get(i), w -> {
+                            termList.add(w);
+                            return termList.size() - 1;
+                        });
+                    }
+                    return result;
+                });
+                for (int id : termIds) {
+                    if (!contains(rowTerms, rowStart[row], count, id)) {
+                        if (count == rowTerms.length) {
+                            rowTerms = Arrays.copyOf(rowTerms, count * 2);
+                        }
+                        rowTerms[count++] = id;
+                    }
+                }
+            }
+        }
+        rowStart[size] = count;
+
+        // Sort the vocabulary for prefix lookups and remap the row term ids
+        this.terms = termList.toArray(new String[0]);
+        Arrays.sort(terms);
+        int[] sortedId = new int[terms.length];
+        for (int id = 0; id < terms.length; id++) {
+            sortedId[ids.get(terms[id])] = id;
+        }
+        int[] counts = new int[terms.length];
+        for (int i = 0; i < count; i++) {
+            rowTerms[i] = sortedId[rowTerms[i]];
+            counts[rowTerms[i]]++;
+        }
+        this.postings = new int[terms.length][];
+        for (int id = 0; id < terms.length; id++) {
+            postings[id] = new int[counts[id]];
+        }
+        int[] fill = new int[terms.length];
+        for (int row = 0; row < size; row++) {
+            for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+                int id = rowTerms[i];
+                postings[id][fill[id]++] = row;
+            }
+        }
+
+        BkNode tree = null;
+        for (int id = 0; id < terms.length; id++) {
+            if (tree == null) {
+                tree = new BkNode(id);
+            } else {
+                tree.add(id, terms);
+            }
+        }
+        this.root = tree;
+    }
+
+    /**
+     * Search with typo tolerance, best matches first
+     * @param limit maximum number of cars to return
+     * @param budgetNanos time budget for the query; the best results found
+     *                    when it runs out are returned
+     */
+    public List<Car> search(String query, int limit, long budgetNanos) {
+        int[] rows = searchRows(query, limit, budgetNanos);
+        List<Car> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(cars.get(row));
+        }
+        return result;
+    }
+
+    /**
+     * Get the matching row ids, best matches first
+     */
+    public int[] searchRows(String query, int limit, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || root == null || limit <= 0) {
+            return new int[0];
+        }
+
+        // Find the vocabulary matches of every word, then process the most
+        // selective words first so later words only filter a short list
+        List<WordMatches> matches = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            if (System.nanoTime() > deadline && !matches.isEmpty()) {
+                break;
+            }
+            WordMatches word = findMatches(words.get(i), i == words.size() - 1);
+            if (word.termIds.length == 0) {
+                return new int[0];
+            }
+            matches.add(word);
+        }
+        matches.sort((a, b) -> Long.compare(a.postingCount, b.postingCount));
+
+        Scratch s = SCRATCH.get();
+        s.ensureRows(cars.size());
+        int base = s.nextGeneration(matches.size());
+        int[] candidates = new int[(int) Math.min(matches.get(0).postingCount, cars.size())];
+        int candidateCount = 0;
+        int completed = 0;
+        boolean outOfTime = false;
+        for (WordMatches word : matches) {
+            int previous = base + completed;
+            int current = previous + 1;
+            for (int t = 0; t < word.termIds.length && !outOfTime; t++) {
+                int distance = word.distances[t];
+                int[] rows = postings[word.termIds[t]];
+                for (int i = 0; i < rows.length; i++) {
+                    int row = rows[i];
+                    if (completed == 0) {
+                        if (s.stamp[row] != current) {
+                            s.stamp[row] = current;
+                            s.score[row] = distance;
+                            candidates[candidateCount++] = row;
+                        }
+                    } else if (s.stamp[row] == previous) {
+                        // Terms are ordered by distance, so the first hit is the closest
+                        s.stamp[row] = current;
+                        s.score[row] += distance;
+                    }
+                    if ((i & 4095) == 4095 && System.nanoTime() > deadline) {
+                        outOfTime = true;
+                        break;
+                    }
+                }
+            }
+            if (outOfTime) {
+                // The first word's partial candidates are the best found so far;
+                // a later word that did not finish is ignored
+                if (completed == 0) {
+                    completed = 1;
+                }
+                break;
+            }
+            completed++;
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+        }
+        return rank(s, candidates, candidateCount, base + completed, limit, matches.get(0).termIds.length > 1);
+    }
+
+    /**
+     * Get the number of distinct words indexed
+     */
+    public int getVocabularySize() {
+        return terms.length;
+    }
+
+    // ==================== QUERY HELPERS ====================
+
+    private static class WordMatches {
+        int[] termIds;
+        int[] distances;
+        long postingCount;
+    }
+
+    /**
+     * Find vocabulary words within the allowed distance of a query word,
+     * closest first. The last word also matches words it is a prefix of.
+     */
+    private WordMatches findMatches(String word, boolean prefix) {
+        int maxDistance = maxDistance(word);
+        Map<Integer, Integer> found = new HashMap<>();
+        if (maxDistance == 0) {
+            int id = Arrays.binarySearch(terms, word);
+            if (id >= 0) {
+                found.put(id, 0);
+            }
+        } else {
+            // Levenshtein keeps the BK-tree exact; a transposition costs 2 there,
+            // so search one edit wider and re-measure allowing transpositions
+            Map<Integer, Integer> wide = new HashMap<>();
+            root.search(word, maxDistance + 1, terms, wide);
+            for (Map.Entry<Integer, Integer> entry : wide.entrySet()) {
+                int d = entry.getValue() <= maxDistance
+                    ? entry.getValue() : transpositionDistance(word, terms[entry.getKey()], maxDistance);
+                if (d <= maxDistance) {
+                    found.put(entry.getKey(), d);
+                }
+            }
+        }
+        if (prefix && word.length() >= 2) {
+            int from = lowerBound(word);
+            for (int id = from; id < terms.length && terms[id].startsWith(word); id++) {
+                found.putIfAbsent(id, terms[id].length() == word.length() ? 0 : 1);
+            }
+        }
+
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(found.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        WordMatches matches = new WordMatches();
+        matches.termIds = new int[entries.size()];
+        matches.distances = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            matches.termIds[i] = entries.get(i).getKey();
+            matches.distances[i] = entries.get(i).getValue();
+            matches.postingCount += postings[matches.termIds[i]].length;
+        }
+        return matches;
+    }
+
+    /**
+     * Order the rows that matched every completed word by score, then row.
+     * Stamps only grow within a query, so a row that also matched part of an
+     * unfinished word still counts.
+     */
+    private int[] rank(Scratch s, int[] candidates, int candidateCount, int finalStamp, int limit, boolean unordered) {
+        if (unordered) {
+            // Candidates came from several posting lists; restore row order
+            if (candidateCount * 16L > cars.size()) {
+                candidateCount = 0;
+                for (int row = 0; row < cars.size(); row++) {
+                    if (s.stamp[row] >= finalStamp) {
+                        candidates[candidateCount++] = row;
+                    }
+                }
+            } else {
+                Arrays.sort(candidates, 0, candidateCount);
+            }
+        }
+        int maxScore = 0;
+        int matched = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int row = candidates[i];
+            if (s.stamp[row] >= finalStamp) {
+                matched++;
+                maxScore = Math.max(maxScore, s.score[row]);
+            }
+        }
+        int[] result = new int[Math.min(limit, matched)];
+        int n = 0;
+        for (int score = 0; score <= maxScore && n < result.length; score++) {
+            for (int i = 0; i < candidateCount && n < result.length; i++) {
+                int row = candidates[i];
+                if (s.stamp[row] >= finalStamp && s.score[row] == score) {
+                    result[n++] = row;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int maxDistance(String word) {
+        if (word.length() < 3 || Character.isDigit(word.charAt(0))) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean contains(int[] values, int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split text into lowercase words of letters and digits
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Levenshtein distance, giving up with NO_DISTANCE once it must exceed the bound
+     */
+    static int distance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return NO_DISTANCE;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) {
+                return NO_DISTANCE;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= bound ? previous[b.length()] : NO_DISTANCE;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent
+     * transpositions), or NO_DISTANCE if above the bound
+     */
+    static int transpositionDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return NO_DISTANCE;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()] <= bound ? d[a.length()][b.length()] : NO_DISTANCE;
+    }
+
+    // ==================== BK-TREE ====================
+
+    /**
+     * BK-tree node: children are keyed by their distance to this node's word,
+     * so a search only descends into children within maxDistance of the
+     * query's distance to this word (triangle inequality)
+     */
+    private static class BkNode {
+        final int termId;
+        int[] childDistances = new int[0];
+        BkNode[] children = new BkNode[0];
+
+        BkNode(int termId) {
+            this.termId = termId;
+        }
+
+        void add(int id, String[] terms) {
+            BkNode node = this;
+            while (true) {
+                int d = distance(terms[id], terms[node.termId], Integer.MAX_VALUE - 1);
+                BkNode child = node.child(d);
+                if (child == null) {
+                    int n = node.children.length;
+                    node.childDistances = Arrays.copyOf(node.childDistances, n + 1);
+                    node.children = Arrays.copyOf(node.children, n + 1);
+                    node.childDistances[n] = d;
+                    node.children[n] = new BkNode(id);
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        BkNode child(int d) {
+            for (int i = 0; i < childDistances.length; i++) {
+                if (childDistances[i] == d) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void search(String word, int maxDistance, String[] terms, Map<Integer, Integer> found) {
+            List<BkNode> stack = new ArrayList<>();
+            stack.add(this);
+            while (!stack.isEmpty()) {
+                BkNode node = stack.remove(stack.size() - 1);
+                String term = terms[node.termId];
+                // The exact distance is needed to pick children, but only up to the largest child key
+                int d = distance(word, term, Math.max(maxDistance, word.length() + term.length()));
+                if (d <= maxDistance) {
+                    found.put(node.termId, d);
+                }
+                for (int i = 0; i < node.childDistances.length; i++) {
+                    if (Math.abs(node.childDistances[i] - d) <= maxDistance) {
+                        stack.add(node.children[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    // ==================== SCRATCH ====================
+
+    /**
+     * Per-thread stamp and score arrays, reused across queries and indexes
+     * and grown to the largest catalog searched. A row's stamp records how
+     * many query words it has matched in the current query; generations
+     * only grow, so nothing has to be cleared between queries.
+     */
+    private static class Scratch {
+        int[] stamp = new int[0];
+        int[] score = new int[0];
+        int generation;
+
+        void ensureRows(int size) {
+            if (stamp.length < size) {
+                stamp = new int[size];
+                score = new int[size];
+            }
+        }
+
+        int nextGeneration(int words) {
+            if (generation > Integer.MAX_VALUE - words - 2) {
+                Arrays.fill(stamp, 0);
+                generation = 0;
+            }
+            int base = generation + 1;
+            generation = base + words;
+            return base;
+        }
+    }
+}
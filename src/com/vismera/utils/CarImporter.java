@@ -0,0 +1,620 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming bulk importer for dealer inventory feeds (CSV or JSON).
+ *
+ * The calling thread reads the file and cuts it into chunks of raw records;
+ * a worker pool parses and validates the chunks in parallel. Parsed chunks
+ * are handed to the sink in file order, one batch per chunk. Only a few
+ * chunks are in flight at a time, so memory stays bounded however large the
+ * file is.
+ *
+ * CSV files need a header row. JSON files may be an array of flat objects or
+ * one object per line. Recognised fields (case and punctuation ignored): id,
+ * make, model, year, price, category, color, mpg, image_path, notes, available.
+ * Rows are checked with the same rules as {@link Car#isValid()}.
+ *
+ * @author Vismerá Inc.
+ */
+public class CarImporter {
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private enum Field { ID, MAKE, MODEL, YEAR, PRICE, CATEGORY, COLOR, MPG, IMAGE_PATH, NOTES, AVAILABLE }
+
+    private static final Map<String, Field> FIELD_NAMES = new HashMap<>();
+
+    static {
+        for (Field field : Field.values()) {
+            FIELD_NAMES.put(normalize(field.name()), field);
+        }
+        FIELD_NAMES.put("modelyear", Field.YEAR);
+        FIELD_NAMES.put("type", Field.CATEGORY);
+        FIELD_NAMES.put("image", Field.IMAGE_PATH);
+    }
+
+    /**
+     * Receives each batch of valid cars, in file order
+     */
+    public interface BatchSink {
+        void accept(List<Car> batch) throws Exception;
+    }
+
+    private final int threads;
+
+    public CarImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CarImporter(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Import a CSV or JSON file (chosen by extension; .json and .jsonl are JSON)
+     * @throws IOException if the file cannot be read, has no usable header, or the sink fails
+     */
+    public ImportResult importFile(String filePath, BatchSink sink) throws IOException {
+        Path path = Paths.get(filePath);
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".json") || name.endsWith(".jsonl");
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return json ? importJson(reader, sink) : importCsv(reader, sink);
+        }
+    }
+
+    /**
+     * Import CSV records (first record is the header)
+     */
+    public ImportResult importCsv(BufferedReader reader, BatchSink sink) throws IOException {
+        int[] lineNumber = { 0 };
+        String header = readCsvRecord(reader, lineNumber);
+        if (header == null) {
+            throw new IOException("CSV file is empty");
+        }
+        List<String> names = parseCsvLine(header);
+        Field[] columns = new Field[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = FIELD_NAMES.get(normalize(names.get(i)));
+        }
+        requireColumns(columns);
+
+        return run(sink, (records, lines) -> {
+            int start = lineNumber[0] + 1;
+            String record;
+            while (records.size() < CHUNK_SIZE && (record = readCsvRecord(reader, lineNumber)) != null) {
+                if (!record.isEmpty()) {
+                    records.add(record);
+                    lines.add(start);
+                }
+                start = lineNumber[0] + 1;
+            }
+        }, record -> {
+            List<String> values = parseCsvLine(record);
+            if (values.size() > columns.length) {
+                throw new IllegalArgumentException("Expected " + columns.length + " fields, found " + values.size());
+            }
+            String[] fields = new String[Field.values().length];
+            for (int i = 0; i < values.size(); i++) {
+                if (columns[i] != null) {
+                    fields[columns[i].ordinal()] = values.get(i);
+                }
+            }
+            return fields;
+        });
+    }
+
+    /**
+     * Import JSON objects (a top-level array or one object per line)
+     */
+    public ImportResult importJson(Reader reader, BatchSink sink) throws IOException {
+        JsonObjectSplitter splitter = new JsonObjectSplitter(reader);
+        return run(sink, (records, lines) -> {
+            String record;
+            while (records.size() < CHUNK_SIZE && (record = splitter.next()) != null) {
+                records.add(record);
+                lines.add(splitter.getStartLine());
+            }
+        }, CarImporter::parseJsonObject);
+    }
+
+    // ==================== PIPELINE ====================
+
+    private interface ChunkReader {
+        void fill(List<String> records, List<Integer> lines) throws IOException;
+    }
+
+    private interface RecordParser {
+        String[] parse(String record);
+    }
+
+    private static class Chunk {
+        final List<Car> cars = new ArrayList<>();
+        final List<String> rejections = new ArrayList<>();
+        int rejected;
+    }
+
+    private ImportResult run(BatchSink sink, ChunkReader chunkReader, RecordParser parser) throws IOException {
+        long started = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        ImportResult result = new ImportResult();
+        try {
+            while (true) {
+                List<String> records = new ArrayList<>(CHUNK_SIZE);
+                List<Integer> lines = new ArrayList<>(CHUNK_SIZE);
+                chunkReader.fill(records, lines);
+                if (records.isEmpty()) {
+                    break;
+                }
+                inFlight.add(pool.submit(() -> parseChunk(records, lines, parser)));
+                if (inFlight.size() >= threads * 2) {
+                    deliver(inFlight.poll(), sink, result);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                deliver(inFlight.poll(), sink, result);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        result.elapsedNanos = System.nanoTime() - started;
+        return result;
+    }
+
+    private static Chunk parseChunk(List<String> records, List<Integer> lines, RecordParser parser) {
+        Chunk chunk = new Chunk();
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                chunk.cars.add(toCar(parser.parse(records.get(i))));
+            } catch (IllegalArgumentException e) {
+                chunk.rejected++;
+                if (chunk.rejections.size() < MAX_REPORTED_REJECTIONS) {
+                    chunk.rejections.add("Line " + lines.get(i) + ": " + e.getMessage());
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private static void deliver(Future<Chunk> future, BatchSink sink, ImportResult result) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error parsing import file: " + e.getCause().getMessage(), e.getCause());
+        }
+        if (!chunk.cars.isEmpty()) {
+            try {
+                sink.accept(chunk.cars);
+            } catch (Exception e) {
+                throw new IOException("Error storing imported cars: " + e.getMessage(), e);
+            }
+        }
+        result.imported += chunk.cars.size();
+        result.rejected += chunk.rejected;
+        for (String rejection : chunk.rejections) {
+            if (result.rejections.size() < MAX_REPORTED_REJECTIONS) {
+                result.rejections.add(rejection);
+            }
+        }
+    }
+
+    // ==================== RECORD PARSING ====================
+
+    private static Car toCar(String[] fields) {
+        Car car = new Car();
+        car.setId(parseInt(fields, Field.ID, 0));
+        car.setMake(trimToNull(fields[Field.MAKE.ordinal()]));
+        car.setModel(trimToNull(fields[Field.MODEL.ordinal()]));
+        car.setYear(parseInt(fields, Field.YEAR, 0));
+        car.setPriceBigDecimal(parsePrice(fields[Field.PRICE.ordinal()]));
+        car.setCategory(trimToNull(fields[Field.CATEGORY.ordinal()]));
+        car.setColor(trimToNull(fields[Field.COLOR.ordinal()]));
+        car.setMpg(parseInt(fields, Field.MPG, 0));
+        String imagePath = trimToNull(fields[Field.IMAGE_PATH.ordinal()]);
+        car.setImagePath(imagePath != null ? imagePath : "");
+        car.setNotes(trimToNull(fields[Field.NOTES.ordinal()]));
+        String available = trimToNull(fields[Field.AVAILABLE.ordinal()]);
+        car.setAvailable(available == null || available.equalsIgnoreCase("true")
+            || available.equalsIgnoreCase("yes") || available.equals("1"));
+        if (!car.isValid()) {
+            throw new IllegalArgumentException("Invalid car: make, model, year (1901-2100) and a positive price below 10 trillion are required");
+        }
+        return car;
+    }
+
+    private static int parseInt(String[] fields, Field field, int defaultValue) {
+        String text = trimToNull(fields[field.ordinal()]);
+        if (text == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field.name().toLowerCase(Locale.ROOT) + ": " + text);
+        }
+    }
+
+    /**
+     * Parse a price, tolerating a peso sign and thousands separators
+     */
+    private static BigDecimal parsePrice(String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        if (text.startsWith("₱")) {
+            text = text.substring(1).trim();
+        }
+        if (text.indexOf(',') >= 0) {
+            text = text.replace(",", "");
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + value.trim());
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void requireColumns(Field[] columns) throws IOException {
+        List<Field> present = new ArrayList<>();
+        Collections.addAll(present, columns);
+        for (Field required : new Field[] { Field.MAKE, Field.MODEL, Field.YEAR, Field.PRICE }) {
+            if (!present.contains(required)) {
+                throw new IOException("CSV header is missing the " + required.name().toLowerCase(Locale.ROOT) + " column");
+            }
+        }
+    }
+
+    // ==================== CSV ====================
+
+    /**
+     * Read one CSV record, joining physical lines while a quoted field is open
+     */
+    private static String readCsvRecord(BufferedReader reader, int[] lineNumber) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber[0]++;
+        if (lineNumber[0] == 1 && line.startsWith("﻿")) {
+            line = line.substring(1);
+        }
+        if (line.indexOf('"') < 0) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        while (countQuotes(record) % 2 != 0) {
+            String next = reader.readLine();
+            if (next == null) {
+                break;
+            }
+            lineNumber[0]++;
+            record.append('\n').append(next);
+        }
+        return record.toString();
+    }
+
+    private static int countQuotes(CharSequence text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Split a CSV record into fields ("" escapes a quote inside a quoted field)
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(12);
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            if (i < length && line.charAt(i) == '"') {
+                StringBuilder field = new StringBuilder();
+                i++;
+                while (i < length) {
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                int comma = line.indexOf(',', i);
+                fields.add(field.toString());
+                if (comma < 0) {
+                    return fields;
+                }
+                i = comma + 1;
+            } else {
+                int comma = line.indexOf(',', i);
+                if (comma < 0) {
+                    fields.add(line.substring(i));
+                    return fields;
+                }
+                fields.add(line.substring(i, comma));
+                i = comma + 1;
+            }
+        }
+    }
+
+    // ==================== JSON ====================
+
+    /**
+     * Cuts a character stream into top-level JSON object texts, skipping the
+     * enclosing array brackets, commas and whitespace between objects
+     */
+    private static class JsonObjectSplitter {
+        private final Reader reader;
+        private final char[] buffer = new char[65536];
+        private int position;
+        private int limit;
+        private int line = 1;
+        private int startLine;
+
+        JsonObjectSplitter(Reader reader) {
+            this.reader = reader;
+        }
+
+        int getStartLine() {
+            return startLine;
+        }
+
+        String next() throws IOException {
+            int c;
+            while ((c = read()) != -1 && c != '{') {
+                // skip '[', ',', ']' and whitespace between objects
+            }
+            if (c == -1) {
+                return null;
+            }
+            startLine = line;
+            StringBuilder object = new StringBuilder(256).append('{');
+            int depth = 1;
+            boolean inString = false;
+            boolean escaped = false;
+            while (depth > 0 && (c = read()) != -1) {
+                object.append((char) c);
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+            }
+            return object.toString();
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            char c = buffer[position++];
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Parse a flat JSON object into field values (strings, numbers, booleans, null)
+     */
+    private static String[] parseJsonObject(String text) {
+        String[] fields = new String[Field.values().length];
+        int[] pos = { skipWhitespace(text, 1) };
+        if (pos[0] < text.length() && text.charAt(pos[0]) == '}') {
+            return fields;
+        }
+        while (true) {
+            if (pos[0] >= text.length() || text.charAt(pos[0]) != '"') {
+                throw new IllegalArgumentException("Malformed JSON object");
+            }
+            String key = readJsonString(text, pos);
+            pos[0] = skipWhitespace(text, pos[0]);
+            if (pos[0] >= text.length() || text.charAt(pos[0]) != ':') {
+                throw new IllegalArgumentException("Malformed JSON object");
+            }
+            pos[0] = skipWhitespace(text, pos[0] + 1);
+            String value = readJsonValue(text, pos);
+            Field field = FIELD_NAMES.get(normalize(key));
+            if (field != null) {
+                fields[field.ordinal()] = value;
+            }
+            pos[0] = skipWhitespace(text, pos[0]);
+            if (pos[0] >= text.length()) {
+                throw new IllegalArgumentException("Malformed JSON object");
+            }
+            char c = text.charAt(pos[0]);
+            if (c == '}') {
+                return fields;
+            }
+            if (c != ',') {
+                throw new IllegalArgumentException("Malformed JSON object");
+            }
+            pos[0] = skipWhitespace(text, pos[0] + 1);
+        }
+    }
+
+    private static String readJsonValue(String text, int[] pos) {
+        if (pos[0] >= text.length()) {
+            throw new IllegalArgumentException("Malformed JSON object");
+        }
+        char c = text.charAt(pos[0]);
+        if (c == '"') {
+            return readJsonString(text, pos);
+        }
+        if (c == '{' || c == '[') {
+            throw new IllegalArgumentException("Nested JSON values are not supported");
+        }
+        int start = pos[0];
+        while (pos[0] < text.length() && ",} \t\r\n".indexOf(text.charAt(pos[0])) < 0) {
+            pos[0]++;
+        }
+        String literal = text.substring(start, pos[0]);
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static String readJsonString(String text, int[] pos) {
+        StringBuilder sb = new StringBuilder();
+        int i = pos[0] + 1;
+        while (i < text.length()) {
+            char c = text.charAt(i++);
+            if (c == '"') {
+                pos[0] = i;
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (i >= text.length()) {
+                break;
+            }
+            char escape = text.charAt(i++);
+            switch (escape) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (i + 4 > text.length()) {
+                        throw new IllegalArgumentException("Malformed JSON escape");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(text.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Malformed JSON escape");
+                    }
+                    i += 4;
+                    break;
+                default: sb.append(escape);
+            }
+        }
+        throw new IllegalArgumentException("Unterminated JSON string");
+    }
+
+    private static int skipWhitespace(String text, int i) {
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // ==================== RESULT ====================
+
+    /**
+     * Outcome of an import: counts, timing and a sample of rejected rows
+     */
+    public static class ImportResult {
+        private long imported;
+        private long rejected;
+        private long elapsedNanos;
+        private final List<String> rejections = new ArrayList<>();
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getRowsRead() {
+            return imported + rejected;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        /**
+         * Get rows read per second (imported and rejected)
+         */
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? getRowsRead() * 1e9 / elapsedNanos : 0;
+        }
+
+        /**
+         * Get up to the first 100 rejected rows as "Line n: reason"
+         */
+        public List<String> getRejections() {
+            return Collections.unmodifiableList(rejections);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Imported %,d of %,d rows (%,d rejected) in %.2f s, %,d rows/s",
+                imported, getRowsRead(), rejected, elapsedNanos / 1e9, Math.round(getRowsPerSecond()));
+        }
+    }
+}
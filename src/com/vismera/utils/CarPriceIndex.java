@@ -0,0 +1,213 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Price-sorted primitive index over the car catalog.
+ * Prices are stored as whole centavos in a sorted long array with the
+ * matching row ids alongside, so price queries are binary searches over
+ * primitives and results are read-only views of a slice (no copying).
+ *
+ * @author Vismerá Inc.
+ */
+public class CarPriceIndex {
+
+    private static final int ROW_BITS = 23;
+    private static final long MAX_PACKED_CENTAVOS = 1L << (63 - ROW_BITS);
+
+    private final List<Car> cars;
+    private final long[] centavos;  // ascending
+    private final int[] rows;       // parallel to centavos; ties keep catalog order
+    private final Map<String, int[]> categoryRows; // lowercase category -> rows by price
+
+    /**
+     * Build the index for the given cars. Row ids are list positions.
+     */
+    public CarPriceIndex(List<Car> cars) {
+        this.cars = cars;
+        int count = cars.size();
+        this.centavos = new long[count];
+        this.rows = new int[count];
+        sortByPrice();
+
+        // Rows are visited cheapest first, so each category bucket comes out sorted
+        Map<String, int[]> counts = new HashMap<>();
+        String[] rowCategory = new String[count];
+        for (int row = 0; row < count; row++) {
+            String category = cars.get(row).getCategory();
+            if (category != null) {
+                rowCategory[row] = category.toLowerCase();
+                counts.computeIfAbsent(rowCategory[row], k -> new int[1])[0]++;
+            }
+        }
+        this.categoryRows = new HashMap<>();
+        Map<String, int[]> fill = new HashMap<>();
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            categoryRows.put(entry.getKey(), new int[entry.getValue()[0]]);
+            fill.put(entry.getKey(), new int[1]);
+        }
+        for (int row : rows) {
+            String category = rowCategory[row];
+            if (category != null) {
+                categoryRows.get(category)[fill.get(category)[0]++] = row;
+            }
+        }
+    }
+
+    /**
+     * Get cars priced between minPrice and maxPrice (inclusive), cheapest first
+     */
+    public List<Car> findInRange(double minPrice, double maxPrice) {
+        double low = Math.ceil(minPrice * 100.0);
+        double high = Math.floor(maxPrice * 100.0);
+        if (!(low <= high)) {
+            return Collections.emptyList(); // also NaN bounds
+        }
+        // Infinite or huge bounds are open ends; casting them would saturate and high + 1 overflow
+        int from = low <= Long.MIN_VALUE ? 0 : lowerBound((long) low);
+        int to = high >= Long.MAX_VALUE ? rows.length : lowerBound((long) high + 1);
+        return new RowSlice(rows, from, Math.max(from, to));
+    }
+
+    /**
+     * Get the cheapest cars in a category ("All" or null for the whole catalog)
+     */
+    public List<Car> findCheapest(String category, int limit) {
+        int[] source = rows;
+        if (category != null && !category.equalsIgnoreCase("All")) {
+            source = categoryRows.get(category.toLowerCase());
+            if (source == null) {
+                return Collections.emptyList();
+            }
+        }
+        return new RowSlice(source, 0, Math.max(0, Math.min(limit, source.length)));
+    }
+
+    /**
+     * Get the car whose price is closest to the given price, or null if empty
+     * or the price is NaN. On a tie the cheaper car wins.
+     */
+    public Car findNearest(double price) {
+        if (rows.length == 0 || Double.isNaN(price)) {
+            return null;
+        }
+        long target = Math.round(price * 100.0);
+        int index = lowerBound(target);
+        if (index == rows.length) {
+            return cars.get(rows[index - 1]);
+        }
+        if (index > 0 && target - centavos[index - 1] <= centavos[index] - target) {
+            index--;
+        }
+        return cars.get(rows[index]);
+    }
+
+    /**
+     * Get the lowest catalog price, or 0 if empty
+     */
+    public double getMinPrice() {
+        return centavos.length > 0 ? centavos[0] / 100.0 : 0;
+    }
+
+    /**
+     * Get the highest catalog price, or 0 if empty
+     */
+    public double getMaxPrice() {
+        return centavos.length > 0 ? centavos[centavos.length - 1] / 100.0 : 0;
+    }
+
+    // ==================== HELPERS ====================
+
+    private static long toCentavos(Car car) {
+        return Math.max(0, Math.round(car.getPrice() * 100.0));
+    }
+
+    /**
+     * Sort rows by price. Packs (centavos, row) into one long when it fits so
+     * the sort runs over primitives; otherwise falls back to a boxed sort.
+     */
+    private void sortByPrice() {
+        int count = cars.size();
+        boolean packable = count < (1 << ROW_BITS);
+        for (int row = 0; row < count && packable; row++) {
+            packable = toCentavos(cars.get(row)) < MAX_PACKED_CENTAVOS;
+        }
+
+        if (packable) {
+            long[] packed = new long[count];
+            for (int row = 0; row < count; row++) {
+                packed[row] = (toCentavos(cars.get(row)) << ROW_BITS) | row;
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < count; i++) {
+                centavos[i] = packed[i] >>> ROW_BITS;
+                rows[i] = (int) (packed[i] & ((1L << ROW_BITS) - 1));
+            }
+        } else {
+            Integer[] order = new Integer[count];
+            for (int row = 0; row < count; row++) {
+                order[row] = row;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int byPrice = Long.compare(toCentavos(cars.get(a)), toCentavos(cars.get(b)));
+                return byPrice != 0 ? byPrice : Integer.compare(a, b);
+            });
+            for (int i = 0; i < count; i++) {
+                rows[i] = order[i];
+                centavos[i] = toCentavos(cars.get(order[i]));
+            }
+        }
+    }
+
+    /**
+     * First index whose price is at least the given centavo amount
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = centavos.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (centavos[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Read-only list view over a slice of a row id array
+     */
+    private class RowSlice extends AbstractList<Car> implements RandomAccess {
+        private final int[] source;
+        private final int from;
+        private final int to;
+
+        RowSlice(int[] source, int from, int to) {
+            this.source = source;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Car get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return cars.get(source[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inverted n-gram index over the searchable car fields.
+ * Built once when the catalog loads so as-you-type search does not have to
+ * lowercase and scan every car on every keystroke.
+ *
+ * Each car's make, model, category, color and year are lowercased into one
+ * haystack string (fields separated by a NUL character). Every position of
+ * every field contributes a trigram key; positions near the end of a field
+ * contribute a shorter gram padded with 0. Keys are kept sorted so that:
+ * - queries of 3+ characters intersect the posting lists of their trigrams
+ *   and verify the few remaining candidates with a plain substring check
+ * - queries of 1-2 characters become a prefix range over the sorted keys
+ *
+ * Results are identical to a case-insensitive substring match on any of the
+ * fields and are returned in catalog order.
+ *
+ * @author Vismerá Inc.
+ */
+public class CarSearchIndex {
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final List<Car> cars;
+    private final String[] haystacks;
+    private final long[] gramKeys;   // sorted ascending
+    private final int[][] postings;  // row ids ascending, parallel to gramKeys
+
+    /**
+     * Build the index for the given cars. Row ids are list positions.
+     */
+    public CarSearchIndex(List<Car> cars) {
+        this.cars = cars;
+        int rowCount = cars.size();
+        this.haystacks = new String[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            haystacks[row] = buildHaystack(cars.get(row));
+        }
+
+        // Pass 1: collect distinct gram keys
+        GramTable table = new GramTable(1024);
+        for (String haystack : haystacks) {
+            for (int i = 0; i < haystack.length(); i++) {
+                if (haystack.charAt(i) != FIELD_SEPARATOR) {
+                    table.add(gramAt(haystack, i));
+                }
+            }
+        }
+        this.gramKeys = table.keys();
+        Arrays.sort(gramKeys);
+        for (int id = 0; id < gramKeys.length; id++) {
+            table.put(gramKeys[id], id);
+        }
+
+        // Pass 2: count distinct rows per gram
+        int[] counts = new int[gramKeys.length];
+        int[] lastRow = new int[gramKeys.length];
+        Arrays.fill(lastRow, -1);
+        for (int row = 0; row < rowCount; row++) {
+            String haystack = haystacks[row];
+            for (int i = 0; i < haystack.length(); i++) {
+                if (haystack.charAt(i) == FIELD_SEPARATOR) continue;
+                int id = table.get(gramAt(haystack, i));
+                if (lastRow[id] != row) {
+                    lastRow[id] = row;
+                    counts[id]++;
+                }
+            }
+        }
+
+        // Pass 3: fill posting lists (rows are visited in order, so lists come out sorted)
+        this.postings = new int[gramKeys.length][];
+        for (int id = 0; id < gramKeys.length; id++) {
+            postings[id] = new int[counts[id]];
+        }
+        int[] fill = new int[gramKeys.length];
+        Arrays.fill(lastRow, -1);
+        for (int row = 0; row < rowCount; row++) {
+            String haystack = haystacks[row];
+            for (int i = 0; i < haystack.length(); i++) {
+                if (haystack.charAt(i) == FIELD_SEPARATOR) continue;
+                int id = table.get(gramAt(haystack, i));
+                if (lastRow[id] != row) {
+                    lastRow[id] = row;
+                    postings[id][fill[id]++] = row;
+                }
+            }
+        }
+    }
+
+    /**
+     * Search cars by make, model, category, color or year.
+     * A null or blank query returns every car.
+     */
+    public List<Car> search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return new ArrayList<>(cars);
+        }
+        int[] rows = searchRows(query.toLowerCase().trim());
+        List<Car> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(cars.get(row));
+        }
+        return result;
+    }
+
+    /**
+     * Get the matching row ids (ascending) for an already lowercased, trimmed query
+     */
+    public int[] searchRows(String lowerQuery) {
+        if (lowerQuery.indexOf(FIELD_SEPARATOR) >= 0) {
+            return new int[0];
+        }
+        if (lowerQuery.length() < 3) {
+            return prefixRows(lowerQuery);
+        }
+        return trigramRows(lowerQuery);
+    }
+
+    /**
+     * Get the number of indexed cars
+     */
+    public int size() {
+        return cars.size();
+    }
+
+    // ==================== QUERY HELPERS ====================
+
+    /**
+     * 1-2 character queries: every gram starting with the query is a match,
+     * and those grams form one contiguous range of the sorted keys.
+     */
+    private int[] prefixRows(String lowerQuery) {
+        long c0 = lowerQuery.charAt(0);
+        long low;
+        long high;
+        if (lowerQuery.length() == 1) {
+            low = c0 << 32;
+            high = low | 0xFFFFFFFFL;
+        } else {
+            low = (c0 << 32) | ((long) lowerQuery.charAt(1) << 16);
+            high = low | 0xFFFFL;
+        }
+        int from = lowerBound(low);
+        int to = lowerBound(high + 1);
+        if (from >= to) {
+            return new int[0];
+        }
+        if (to - from == 1) {
+            return postings[from].clone();
+        }
+
+        long[] words = new long[(cars.size() + 63) >>> 6];
+        for (int id = from; id < to; id++) {
+            for (int row : postings[id]) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        int[] rows = new int[count];
+        int n = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                rows[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 3+ character queries: intersect the posting lists of every query trigram,
+     * shortest first, then verify candidates with a substring check.
+     */
+    private int[] trigramRows(String lowerQuery) {
+        int gramCount = lowerQuery.length() - 2;
+        int[][] lists = new int[gramCount][];
+        for (int i = 0; i < gramCount; i++) {
+            long key = ((long) lowerQuery.charAt(i) << 32)
+                     | ((long) lowerQuery.charAt(i + 1) << 16)
+                     | lowerQuery.charAt(i + 2);
+            int id = Arrays.binarySearch(gramKeys, key);
+            if (id < 0) {
+                return new int[0];
+            }
+            lists[i] = postings[id];
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] candidates = lists[0];
+        int size = candidates.length;
+        int[] buffer = null;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            if (lists[i] == lists[i - 1]) continue; // repeated trigram in the query
+            if (buffer == null) {
+                buffer = new int[size];
+            }
+            size = intersect(candidates, size, lists[i], buffer);
+            candidates = buffer;
+        }
+
+        // A single trigram needs no verification; longer queries must match contiguously
+        if (gramCount == 1) {
+            return Arrays.copyOf(candidates, size);
+        }
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int row = candidates[i];
+            if (haystacks[row].contains(lowerQuery)) {
+                rows[n++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, n);
+    }
+
+    /**
+     * Intersect the first {@code size} entries of {@code small} with {@code large}
+     * into {@code out} (which may alias {@code small}). Gallops through the larger
+     * list when it is much longer than the candidates.
+     */
+    private static int intersect(int[] small, int size, int[] large, int[] out) {
+        int n = 0;
+        int j = 0;
+        if (large.length < size * 8) {
+            // Similar sizes: a plain merge beats galloping
+            for (int i = 0; i < size && j < large.length; ) {
+                int a = small[i];
+                int b = large[j];
+                if (a < b) {
+                    i++;
+                } else if (a > b) {
+                    j++;
+                } else {
+                    out[n++] = a;
+                    i++;
+                    j++;
+                }
+            }
+            return n;
+        }
+        for (int i = 0; i < size && j < large.length; i++) {
+            int target = small[i];
+            if (large[j] < target) {
+                int step = 1;
+                int lo = j;
+                while (j + step < large.length && large[j + step] < target) {
+                    lo = j + step;
+                    step <<= 1;
+                }
+                int hi = Math.min(j + step, large.length - 1);
+                j = Arrays.binarySearch(large, lo, hi + 1, target);
+                if (j >= 0) {
+                    out[n++] = target;
+                    j++;
+                } else {
+                    j = -j - 1;
+                }
+            } else if (large[j] == target) {
+                out[n++] = target;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private int lowerBound(long key) {
+        int index = Arrays.binarySearch(gramKeys, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // ==================== BUILD HELPERS ====================
+
+    private static String buildHaystack(Car car) {
+        StringBuilder sb = new StringBuilder(48);
+        sb.append(lower(car.getMake())).append(FIELD_SEPARATOR);
+        sb.append(lower(car.getModel())).append(FIELD_SEPARATOR);
+        sb.append(lower(car.getCategory())).append(FIELD_SEPARATOR);
+        sb.append(lower(car.getColor())).append(FIELD_SEPARATOR);
+        sb.append(car.getYear());
+        return sb.toString();
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase() : "";
+    }
+
+    /**
+     * Encode the gram starting at position i, stopping at the end of its field
+     */
+    private static long gramAt(String haystack, int i) {
+        long key = (long) haystack.charAt(i) << 32;
+        if (i + 1 < haystack.length() && haystack.charAt(i + 1) != FIELD_SEPARATOR) {
+            key |= (long) haystack.charAt(i + 1) << 16;
+            if (i + 2 < haystack.length() && haystack.charAt(i + 2) != FIELD_SEPARATOR) {
+                key |= haystack.charAt(i + 2);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Open-addressing long to int table used only while building the index
+     */
+    private static class GramTable {
+        private static final long EMPTY = -1L;
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        GramTable(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        void add(long key) {
+            put(key, -1, false);
+        }
+
+        void put(long key, int value) {
+            put(key, value, true);
+        }
+
+        private void put(long key, int value, boolean overwrite) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int slot = slot(key, keys.length);
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    if (overwrite) values[slot] = value;
+                    return;
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        int get(long key) {
+            int slot = slot(key, keys.length);
+            while (keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return values[slot];
+        }
+
+        long[] keys() {
+            long[] result = new long[size];
+            int n = 0;
+            for (long key : keys) {
+                if (key != EMPTY) result[n++] = key;
+            }
+            return result;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slot(oldKeys[i], keys.length);
+                    while (keys[slot] != EMPTY) {
+                        slot = (slot + 1) & (keys.length - 1);
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(long key, int capacity) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 40) & (capacity - 1);
+        }
+    }
+}
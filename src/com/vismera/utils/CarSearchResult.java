@@ -0,0 +1,30 @@
+package com.vismera.utils;
+
+import com.vismera.models.Car;
+import java.util.List;
+
+/**
+ * The cars matching a search together with the facet counts of the whole
+ * search (before the category filter), both taken from one catalog
+ * snapshot so the counts always describe the cars shown.
+ *
+ * @author Vismerá Inc.
+ */
+public final class CarSearchResult {
+
+    private final CarFacets facets;
+    private final List<Car> cars;
+
+    public CarSearchResult(CarFacets facets, List<Car> cars) {
+        this.facets = facets;
+        this.cars = cars;
+    }
+
+    public CarFacets getFacets() {
+        return facets;
+    }
+
+    public List<Car> getCars() {
+        return cars;
+    }
+}
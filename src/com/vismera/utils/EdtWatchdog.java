@@ -0,0 +1,353 @@
+package com.vismera.utils;
+
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.InvocationEvent;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Watches the event dispatch thread for slow event dispatches.
+ *
+ * Installs an EventQueue that times every dispatch into a latency histogram.
+ * A daemon thread polls the dispatch in progress; once it has run longer
+ * than the stall threshold, the EDT stack is captured together with the
+ * event and the application code it was in, and kept as a {@link Stall}.
+ * Fast dispatches cost two clock reads and a few field writes, and the
+ * watchdog thread only wakes a few times per threshold.
+ *
+ * Nested event loops (modal dialogs) are handled: while a dialog pumps
+ * events, the dispatch that opened it is treated as idle, not stalled.
+ *
+ * @author Vismerá Inc.
+ */
+public class EdtWatchdog {
+
+    private static final long DEFAULT_STALL_MILLIS = 100;
+    private static final int MAX_STALLS = 50;
+    private static final int MAX_DEPTH = 16;
+    private static final String APP_PACKAGE = "com.vismera.";
+
+    /** Bucket 0 is under 1 ms, bucket i is [2^(i-1), 2^i) ms, the last is open-ended */
+    private static final int BUCKETS = 13;
+
+    private static EdtWatchdog instance;
+
+    private final long stallNanos;
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final ArrayDeque<Stall> stalls = new ArrayDeque<>();
+    private volatile long maxNanos;
+
+    // Dispatch in progress, written by the EDT and read by the watchdog thread
+    private volatile Thread dispatchThread;
+    private volatile long dispatchStart;
+    private volatile long dispatchSequence;
+    private volatile AWTEvent currentEvent;
+    private volatile Stall currentStall;
+
+    // Nesting state, EDT only
+    private final long[] startsByDepth = new long[MAX_DEPTH];
+    private final AWTEvent[] eventsByDepth = new AWTEvent[MAX_DEPTH];
+    private final boolean[] pumpedByDepth = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean installed;
+
+    private EdtWatchdog(long stallMillis) {
+        this.stallNanos = stallMillis * 1_000_000L;
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized EdtWatchdog getInstance() {
+        if (instance == null) {
+            instance = new EdtWatchdog(Long.getLong("vismera.edt.stallMillis", DEFAULT_STALL_MILLIS));
+        }
+        return instance;
+    }
+
+    /**
+     * Start timing event dispatches. Safe to call more than once.
+     */
+    public synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimingEventQueue());
+
+        Thread watcher = new Thread(this::watch, "edt-watchdog");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    // ==================== DISPATCH TIMING ====================
+
+    /**
+     * Event queue that reports each dispatch to the watchdog
+     */
+    private class TimingEventQueue extends EventQueue {
+
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            // Waiting for the next event is idle time, also inside a modal loop
+            dispatchStart = 0;
+            return super.getNextEvent();
+        }
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            beginDispatch(event);
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                endDispatch();
+            }
+        }
+    }
+
+    private void beginDispatch(AWTEvent event) {
+        if (depth > 0 && depth <= MAX_DEPTH) {
+            // The enclosing dispatch is pumping a nested loop, so its time is not a stall
+            pumpedByDepth[depth - 1] = true;
+        }
+        long now = System.nanoTime();
+        if (depth < MAX_DEPTH) {
+            startsByDepth[depth] = now;
+            eventsByDepth[depth] = event;
+            pumpedByDepth[depth] = false;
+        }
+        depth++;
+        Thread current = Thread.currentThread();
+        if (dispatchThread != current) {
+            // AWT starts a new dispatch thread after an uncaught exception
+            dispatchThread = current;
+        }
+        currentStall = null;
+        currentEvent = event;
+        dispatchSequence++;
+        dispatchStart = now;
+    }
+
+    private void endDispatch() {
+        long now = System.nanoTime();
+        depth--;
+        if (depth < MAX_DEPTH && !pumpedByDepth[depth]) {
+            long elapsed = now - startsByDepth[depth];
+            histogram.incrementAndGet(bucketOf(elapsed));
+            if (elapsed > maxNanos) {
+                maxNanos = elapsed;
+            }
+            Stall stall = currentStall;
+            if (stall != null && stall.sequence == dispatchSequence) {
+                stall.durationNanos = elapsed;
+                System.err.println("EDT stall: " + stall);
+            }
+        }
+        if (depth < MAX_DEPTH) {
+            eventsByDepth[depth] = null;
+        }
+        currentStall = null;
+        if (depth > 0 && depth <= MAX_DEPTH) {
+            // Back in the enclosing dispatch, which resumes its own work
+            currentEvent = eventsByDepth[depth - 1];
+            dispatchSequence++;
+            dispatchStart = now;
+        } else {
+            currentEvent = null;
+            dispatchStart = 0;
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        long millis = nanos / 1_000_000L;
+        int bucket = 64 - Long.numberOfLeadingZeros(millis);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    // ==================== WATCHDOG THREAD ====================
+
+    private void watch() {
+        long pollMillis = Math.max(1, stallNanos / 4_000_000L);
+        long capturedSequence = -1;
+        while (true) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = dispatchStart;
+            long sequence = dispatchSequence;
+            if (start == 0 || sequence == capturedSequence || System.nanoTime() - start < stallNanos) {
+                continue;
+            }
+            AWTEvent event = currentEvent;
+            StackTraceElement[] stack = dispatchThread.getStackTrace();
+            // The dispatch may have finished while the stack was taken
+            if (dispatchSequence != sequence || dispatchStart == 0) {
+                continue;
+            }
+            capturedSequence = sequence;
+            Stall stall = new Stall(sequence, describe(event), locate(stack), stack, System.nanoTime() - start);
+            currentStall = stall;
+            synchronized (stalls) {
+                if (stalls.size() == MAX_STALLS) {
+                    stalls.removeFirst();
+                }
+                stalls.addLast(stall);
+            }
+        }
+    }
+
+    /**
+     * Name the event and the application component it was sent to
+     */
+    private static String describe(AWTEvent event) {
+        if (event == null) {
+            return "unknown event";
+        }
+        if (event instanceof InvocationEvent) {
+            // invokeLater and Swing timers: the runnable names the caller
+            String params = event.paramString();
+            int start = params.indexOf("runnable=");
+            if (start >= 0) {
+                int end = params.indexOf(',', start);
+                return "invokeLater " + params.substring(start + 9, end < 0 ? params.length() : end);
+            }
+            return params;
+        }
+        Object source = event.getSource();
+        String name = event.getClass().getSimpleName() + " on " + source.getClass().getSimpleName();
+        if (source instanceof Component) {
+            for (Component c = (Component) source; c != null; c = c.getParent()) {
+                if (c.getClass().getName().startsWith(APP_PACKAGE)) {
+                    return c.getClass().getSimpleName() + " (" + name + ")";
+                }
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Innermost application frame of the stack, e.g. CarsPanel.filterCars
+     */
+    private static String locate(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().startsWith(APP_PACKAGE)
+                    && !frame.getClassName().equals(EdtWatchdog.class.getName())
+                    && !frame.getClassName().startsWith(EdtWatchdog.class.getName() + "$")) {
+                String className = frame.getClassName();
+                return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName()
+                    + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+            }
+        }
+        return "outside application code";
+    }
+
+    // ==================== REPORTING ====================
+
+    /**
+     * Get the dispatch count per latency bucket, see {@link #getBucketLabel(int)}
+     */
+    public long[] getHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return counts;
+    }
+
+    public static String getBucketLabel(int bucket) {
+        if (bucket == 0) {
+            return "< 1 ms";
+        }
+        long from = 1L << (bucket - 1);
+        return bucket == BUCKETS - 1 ? ">= " + from + " ms" : from + "-" + (from * 2) + " ms";
+    }
+
+    public double getMaxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    /**
+     * Get the most recent stalls, oldest first
+     */
+    public List<Stall> getStalls() {
+        synchronized (stalls) {
+            return new ArrayList<>(stalls);
+        }
+    }
+
+    /**
+     * Print the latency histogram and the recorded stalls with their stacks
+     */
+    public void dump(PrintStream out) {
+        long[] counts = getHistogram();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        out.println("EDT dispatch latency (" + total + " events, max "
+            + String.format("%.1f", getMaxMillis()) + " ms, stall threshold " + stallNanos / 1_000_000L + " ms)");
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                out.println(String.format("  %-14s %10d  %6.2f%%", getBucketLabel(i), counts[i],
+                    100.0 * counts[i] / total));
+            }
+        }
+        for (Stall stall : getStalls()) {
+            out.println(stall);
+            for (StackTraceElement frame : stall.getStackTrace()) {
+                out.println("\tat " + frame);
+            }
+        }
+    }
+
+    /**
+     * One slow dispatch: what was dispatched, where the EDT was when the
+     * threshold passed, and how long the dispatch took in the end
+     */
+    public static final class Stall {
+
+        private final long sequence;
+        private final long timestamp = System.currentTimeMillis();
+        private final String event;
+        private final String location;
+        private final StackTraceElement[] stackTrace;
+        private volatile long durationNanos;
+
+        private Stall(long sequence, String event, String location, StackTraceElement[] stackTrace,
+                long durationNanos) {
+            this.sequence = sequence;
+            this.event = event;
+            this.location = location;
+            this.stackTrace = stackTrace;
+            this.durationNanos = durationNanos;
+        }
+
+        public long getTimestamp() { return timestamp; }
+
+        public String getEvent() { return event; }
+
+        public String getLocation() { return location; }
+
+        public StackTraceElement[] getStackTrace() { return stackTrace.clone(); }
+
+        /**
+         * Total dispatch time, or the time at capture while still running
+         */
+        public double getDurationMillis() { return durationNanos / 1e6; }
+
+        @Override
+        public String toString() {
+            return String.format("%tT %.0f ms in %s, dispatching %s",
+                new Date(timestamp), getDurationMillis(), location, event);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.vismera.utils;
+
+/**
+ * Open-addressing hash map from int keys to int values.
+ * Avoids boxing for hot lookups such as car ID to catalog row.
+ * Not thread-safe; instances are filled once and then only read.
+ *
+ * @author Vismerá Inc.
+ */
+public class IntIntHashMap {
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Associate a value with a key, replacing any previous value
+     */
+    public void put(int key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slot = slot(key, keys.length);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Get the value for a key, or defaultValue if absent
+     */
+    public int get(int key, int defaultValue) {
+        int slot = slot(key, keys.length);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(int key) {
+        int slot = slot(key, keys.length);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int slot(int key, int capacity) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (capacity - 1);
+    }
+}
@@ -0,0 +1,575 @@
+package com.vismera.utils;
+
+import com.vismera.utils.SecureFileExporter.ImportedRecord;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-mapped view of a secure TXT file for importing files too large to
+ * hold as {@link ImportedRecord}s.
+ *
+ * Opening the file maps it read-only and scans it in place: each record
+ * line is trimmed, split and hash-verified on the mapped bytes, with the
+ * same rules as {@link SecureFileExporter#importSecureFile(String)}. Only
+ * the offset of each record is kept, in an off-heap index, with its hash
+ * result in a spare bit. {@link #get(int)} returns a small {@link Record}
+ * view over the mapped bytes; its fields are decoded to strings and parsed
+ * to numbers only when asked for, so the heap used does not grow with the
+ * file. Files over 1 GB are mapped in several segments cut at line ends.
+ *
+ * The scan hashes the bytes as stored, where the string import hashes the
+ * decoded text. The two only differ for lines that are not valid UTF-8,
+ * which the exporter never writes, so such lines count as tampered either
+ * way.
+ *
+ * {@link #close()} unmaps the file and frees the index right away, so the
+ * file is no longer locked (Windows keeps a mapped file locked until it is
+ * unmapped). Records must not be read while another thread closes the file.
+ *
+ * @author Vismerá Inc.
+ */
+public final class MappedSecureFile implements AutoCloseable {
+
+    private static final int SEGMENT_BYTES = 1 << 30;
+    private static final int MIN_FIELDS = 10;
+    private static final long VALID_BIT = 1L << 62;
+    /** Index entries are longs in one direct buffer, which holds at most 2 GB */
+    private static final int MAX_RECORDS = Integer.MAX_VALUE / 8;
+    private static final int HEX_LENGTH = 64;
+    private static final byte[] SEPARATOR_PREFIX = "---".getBytes(StandardCharsets.US_ASCII);
+
+    // Field positions in the record data
+    private static final int ID = 0, NAME = 1, TYPE = 2, STATUS = 3, AMOUNT = 4, RATE = 5,
+        PAYMENT = 6, INTEREST = 7, TOTAL = 8, TERM = 9, DATE_RANGE = 10;
+
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * sun.misc.Unsafe and its invokeCleaner method, the only way to unmap a
+     * buffer before it is garbage collected; null where not available
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.err.println("Mapped files will be released by the garbage collector: " + e.getMessage());
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final String filePath;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final List<Long> segmentStarts = new ArrayList<>();
+    private ByteBuffer indexBytes = ByteBuffer.allocateDirect(8 << 16);
+    private LongBuffer index = indexBytes.asLongBuffer();
+    private int size;
+    private long tamperedCount;
+    private volatile boolean closed;
+
+    private MappedSecureFile(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Map the file and verify every record
+     */
+    public static MappedSecureFile open(String filePath) throws IOException {
+        MappedSecureFile file = new MappedSecureFile(filePath);
+        boolean opened = false;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = 0;
+            while (position < fileSize) {
+                long length = Math.min(SEGMENT_BYTES, fileSize - position);
+                ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < fileSize) {
+                    end = lastLineEnd(segment, end) + 1;
+                    if (end == 0) {
+                        throw new IOException("Line longer than " + SEGMENT_BYTES + " bytes at offset " + position);
+                    }
+                    segment.limit(end);
+                }
+                file.scan(segment, position);
+                file.segments.add(segment);
+                file.segmentStarts.add(position);
+                position += end;
+            }
+            opened = true;
+        } catch (InvalidPathException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            if (!opened) {
+                file.close();
+            }
+        }
+        // The mapping stays valid after the channel is closed
+        return file;
+    }
+
+    /**
+     * Unmap the file and free the index. Records read before stay usable
+     * only if they were copied, e.g. with {@link Record#toImportedRecord()}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (ByteBuffer segment : segments) {
+            release(segment);
+        }
+        release(indexBytes);
+        segments.clear();
+        segmentStarts.clear();
+        indexBytes = null;
+        index = null;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Get the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of records whose hash does not match their data
+     */
+    public long getTamperedCount() {
+        return tamperedCount;
+    }
+
+    /**
+     * Get a view of the record at the given position, in file order
+     */
+    public Record get(int recordIndex) {
+        checkOpen();
+        if (recordIndex < 0 || recordIndex >= size) {
+            throw new IndexOutOfBoundsException("Record " + recordIndex + " of " + size);
+        }
+        long entry = index.get(recordIndex);
+        long offset = entry & ~VALID_BIT;
+        int segment = segmentOf(offset);
+        ByteBuffer bytes = segments.get(segment);
+        int start = (int) (offset - segmentStarts.get(segment));
+        int end = start;
+        while (end < bytes.limit() && !isLineEnd(bytes.get(end))) {
+            end++;
+        }
+        int[] bounds = new int[5];
+        locate(bytes, start, end, bounds);
+        return new Record(this, bytes, bounds, (entry & VALID_BIT) != 0);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Secure file is closed: " + filePath);
+        }
+    }
+
+    /**
+     * Unmap or free a direct buffer now rather than when it is collected
+     */
+    private static void release(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.err.println("Error releasing mapped file: " + e.getMessage());
+        }
+    }
+
+    // ==================== SCANNING ====================
+
+    /**
+     * Verify the records of one segment and add them to the index
+     */
+    private void scan(ByteBuffer bytes, long base) {
+        ByteBuffer data = bytes.duplicate();
+        MessageDigest digest = SecureRecordEncoder.sha256();
+        byte[] calculated = new byte[HEX_LENGTH];
+        int[] bounds = new int[5];
+        int limit = bytes.limit();
+        int start = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && !isLineEnd(bytes.get(i))) {
+                continue;
+            }
+            if (locate(bytes, start, i, bounds)) {
+                data.limit(bounds[1]).position(bounds[0]);
+                digest.update(data);
+                SecureRecordEncoder.hex(digest.digest(), calculated, 0);
+                boolean valid = hexEquals(bytes, bounds[2], bounds[3], calculated);
+                if (!valid) {
+                    tamperedCount++;
+                }
+                append((base + bounds[0]) | (valid ? VALID_BIT : 0));
+            }
+            start = i + 1;
+        }
+    }
+
+    private void append(long entry) {
+        if (size == index.capacity()) {
+            if (size == MAX_RECORDS) {
+                throw new IllegalStateException("More than " + MAX_RECORDS + " records");
+            }
+            // Grown off-heap, so the index does not count against the heap
+            int capacity = (int) Math.min(MAX_RECORDS, (long) size * 2);
+            ByteBuffer grownBytes = ByteBuffer.allocateDirect(capacity * 8);
+            LongBuffer grown = grownBytes.asLongBuffer();
+            index.clear();
+            grown.put(index);
+            release(indexBytes);
+            indexBytes = grownBytes;
+            index = grown;
+        }
+        index.put(size++, entry);
+    }
+
+    /**
+     * Find the data and hash of a record line, the byte version of the
+     * string import's parsing. Bounds are filled as data start and end, hash
+     * start and end, and the number of pipe-separated parts.
+     * @return false for separators, blank and malformed lines
+     */
+    private static boolean locate(ByteBuffer bytes, int start, int end, int[] bounds) {
+        start = trimStart(bytes, start, end);
+        end = trimEnd(bytes, start, end);
+        if (start == end || startsWith(bytes, start, end, SEPARATOR_PREFIX)) {
+            return false;
+        }
+        int separator = -1;
+        for (int i = end - 3; i >= start; i--) {
+            if (bytes.get(i) == ' ' && bytes.get(i + 1) == '|' && bytes.get(i + 2) == ' ') {
+                separator = i;
+                break;
+            }
+        }
+        if (separator == -1) {
+            return false;
+        }
+        bounds[0] = start;
+        bounds[1] = trimEnd(bytes, start, separator);
+        bounds[2] = trimStart(bytes, separator + 3, end);
+        bounds[3] = end;
+        bounds[4] = countParts(bytes, bounds[0], bounds[1]);
+        return bounds[4] >= MIN_FIELDS;
+    }
+
+    /**
+     * Number of parts String.split("\\|") gives, which drops trailing empty parts
+     */
+    private static int countParts(ByteBuffer bytes, int start, int end) {
+        int parts = 0;
+        int nonEmpty = 0;
+        int partStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || bytes.get(i) == '|') {
+                parts++;
+                if (i > partStart) {
+                    nonEmpty = parts;
+                }
+                partStart = i + 1;
+            }
+        }
+        // Without any pipe the whole data is the single part, even when empty
+        return parts == 1 ? 1 : nonEmpty;
+    }
+
+    private static boolean hexEquals(ByteBuffer bytes, int start, int end, byte[] hex) {
+        if (end - start != hex.length) {
+            return false;
+        }
+        for (int i = 0; i < hex.length; i++) {
+            if (bytes.get(start + i) != hex[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int segmentOf(long offset) {
+        int segment = segmentStarts.size() - 1;
+        while (segmentStarts.get(segment) > offset) {
+            segment--;
+        }
+        return segment;
+    }
+
+    private static int lastLineEnd(ByteBuffer bytes, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (isLineEnd(bytes.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /** Same as String.trim: every byte up to a space, never part of a multi-byte character */
+    private static int trimStart(ByteBuffer bytes, int start, int end) {
+        while (start < end && (bytes.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(ByteBuffer bytes, int start, int end) {
+        while (end > start && (bytes.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean startsWith(ByteBuffer bytes, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== RECORD VIEW ====================
+
+    /**
+     * One record, read from the mapped file on demand
+     */
+    public static final class Record {
+
+        private final MappedSecureFile file;
+        private final ByteBuffer bytes;
+        private final int dataStart;
+        private final int dataEnd;
+        private final int hashStart;
+        private final int hashEnd;
+        private final int parts;
+        private final boolean hashValid;
+        private int[] pipes;
+
+        private Record(MappedSecureFile file, ByteBuffer bytes, int[] bounds, boolean hashValid) {
+            this.file = file;
+            this.bytes = bytes;
+            this.dataStart = bounds[0];
+            this.dataEnd = bounds[1];
+            this.hashStart = bounds[2];
+            this.hashEnd = bounds[3];
+            this.parts = bounds[4];
+            this.hashValid = hashValid;
+        }
+
+        public boolean isHashValid() { return hashValid; }
+
+        public String getId() { return field(ID); }
+
+        public String getName() { return field(NAME); }
+
+        public String getType() { return field(TYPE); }
+
+        public String getStatus() { return field(STATUS); }
+
+        public String getAmount() { return field(AMOUNT); }
+
+        public String getRate() { return field(RATE); }
+
+        public String getPayment() { return field(PAYMENT); }
+
+        public String getInterest() { return field(INTEREST); }
+
+        public String getTotal() { return field(TOTAL); }
+
+        public String getTerm() { return field(TERM); }
+
+        public String getDateRange() { return parts > DATE_RANGE ? field(DATE_RANGE) : "N/A"; }
+
+        public String getStoredHash() { return decode(hashStart, hashEnd); }
+
+        public String getRawData() { return decode(dataStart, dataEnd); }
+
+        /**
+         * Hash of the data, recomputed only when it does not match the stored one
+         */
+        public String getCalculatedHash() {
+            if (hashValid) {
+                return getStoredHash();
+            }
+            // Hashed as decoded text, like the string import shows it
+            return SecureFileExporter.hashSHA256(getRawData());
+        }
+
+        // Numeric fields, parsed from the bytes each call; NaN when not a number
+
+        public double getAmountValue() { return number(AMOUNT); }
+
+        public double getRateValue() { return number(RATE); }
+
+        public double getPaymentValue() { return number(PAYMENT); }
+
+        public double getInterestValue() { return number(INTEREST); }
+
+        public double getTotalValue() { return number(TOTAL); }
+
+        public double getTermValue() { return number(TERM); }
+
+        /**
+         * Copy the record into an ImportedRecord, e.g. for display
+         */
+        public ImportedRecord toImportedRecord() {
+            ImportedRecord record = new ImportedRecord();
+            record.setId(getId());
+            record.setName(getName());
+            record.setType(getType());
+            record.setStatus(getStatus());
+            record.setAmount(getAmount());
+            record.setRate(getRate());
+            record.setPayment(getPayment());
+            record.setInterest(getInterest());
+            record.setTotal(getTotal());
+            record.setTerm(getTerm());
+            record.setDateRange(getDateRange());
+            record.setStoredHash(getStoredHash());
+            record.setCalculatedHash(getCalculatedHash());
+            record.setHashValid(hashValid);
+            record.setRawData(getRawData());
+            return record;
+        }
+
+        private String field(int field) {
+            int[] bounds = fieldBounds(field);
+            return decode(bounds[0], bounds[1]);
+        }
+
+        /**
+         * Trimmed byte range of a field
+         */
+        private int[] fieldBounds(int field) {
+            // Reading an unmapped buffer would crash the VM
+            file.checkOpen();
+            if (pipes == null) {
+                int count = 0;
+                for (int i = dataStart; i < dataEnd; i++) {
+                    if (bytes.get(i) == '|') {
+                        count++;
+                    }
+                }
+                pipes = new int[count];
+                count = 0;
+                for (int i = dataStart; i < dataEnd; i++) {
+                    if (bytes.get(i) == '|') {
+                        pipes[count++] = i;
+                    }
+                }
+            }
+            int start = field == 0 ? dataStart : pipes[field - 1] + 1;
+            int end = field < pipes.length ? pipes[field] : dataEnd;
+            start = trimStart(bytes, start, end);
+            return new int[] { start, trimEnd(bytes, start, end) };
+        }
+
+        /**
+         * Parse "₱1234.56", "6.50%" or "60" without building a string
+         */
+        private double number(int field) {
+            int[] bounds = fieldBounds(field);
+            int i = bounds[0];
+            int end = bounds[1];
+            // Skip the currency sign
+            while (i < end && !isDigit(bytes.get(i)) && bytes.get(i) != '-' && bytes.get(i) != '.') {
+                i++;
+            }
+            int numberStart = i;
+            boolean negative = i < end && bytes.get(i) == '-';
+            if (negative) {
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean fraction = false;
+            for (; i < end; i++) {
+                byte b = bytes.get(i);
+                if (b == '.' && !fraction) {
+                    fraction = true;
+                } else if (isDigit(b)) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (fraction) {
+                        scale++;
+                    }
+                } else {
+                    break;
+                }
+            }
+            if (digits == 0) {
+                return Double.NaN;
+            }
+            if (digits > 15 || scale >= POWERS_OF_TEN.length) {
+                // Not exact as a double, leave the rounding to the JDK
+                return Double.parseDouble(decode(numberStart, i));
+            }
+            // Both operands are exact, so the division rounds once, like parseDouble
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private String decode(int start, int end) {
+            file.checkOpen();
+            return new String(copy(start, end), StandardCharsets.UTF_8);
+        }
+
+        private byte[] copy(int start, int end) {
+            byte[] copy = new byte[end - start];
+            bytes.get(start, copy);
+            return copy;
+        }
+    }
+}
@@ -5,17 +5,29 @@ import com.vismera.models.LoanCalculation;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 /**
  * Utility class for secure export/import of loan data to TXT files.
@@ -30,78 +42,137 @@ public class SecureFileExporter {
 
     private static final String RECORD_SEPARATOR = "----------------------------------------";
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy");
+    private static final int WRITE_BLOCK_BYTES = 1 << 20;
+    private static final int CHUNK_RECORDS = 4096;
+    private static final int READ_BLOCK_BYTES = 4 << 20;
+    /** Longest line a block grows to hold; no record comes close */
+    private static final int MAX_READ_BLOCK_BYTES = 64 << 20;
+    /** Files from this size on are imported memory-mapped, see {@link MappedSecureFile} */
+    private static final long MAPPED_IMPORT_BYTES = 64L << 20;
 
     /**
      * Generate SHA-256 hash of a string (uppercase hex)
      */
     public static String hashSHA256(String input) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex.toUpperCase());
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not found", e);
-        }
+        byte[] data = input.getBytes(StandardCharsets.UTF_8);
+        byte[] hex = new byte[64];
+        SecureRecordEncoder.sha256Hex(data, 0, data.length, hex, 0);
+        return new String(hex, StandardCharsets.US_ASCII);
     }
 
     /**
      * Export loan data with horizontal pipe-delimited format and SHA-256 hash per record.
      * Format: ID|Name|Job|Status|Amount|Rate|Payment|Interest|Total|Term|DateRange | HASH
-     * No filler characters - compact format.
+     * No filler characters - compact format. Uses one worker per core for
+     * large schedules, see {@link #exportSecureSchedule(List, LoanCalculation, String, int)}.
      */
     public static boolean exportSecureSchedule(List<AmortizationEntry> entries, 
                                                 LoanCalculation loan, 
                                                 String filePath) {
+        return exportSecureSchedule(entries, loan, filePath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Export with the given number of worker threads. Records are encoded
+     * straight to UTF-8 bytes and written through a file channel in large
+     * blocks. With more than one thread, the schedule is split into chunks
+     * that the workers format and hash in parallel, while the calling thread
+     * writes finished chunks strictly in order; at most two chunks per
+     * worker are in memory at once. The file is identical either way.
+     */
+    public static boolean exportSecureSchedule(List<AmortizationEntry> entries, 
+                                                LoanCalculation loan, 
+                                                String filePath,
+                                                int threads) {
         if (entries == null || entries.isEmpty()) {
             return false;
         }
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            // Calculate dates
-            LocalDate startDate = LocalDate.now();
-            int termMonths = loan.getLoanTermYears() * 12;
-            LocalDate endDate = startDate.plusMonths(termMonths);
-            String dateRange = startDate.format(DATE_FORMAT) + " - " + endDate.format(DATE_FORMAT);
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            String dateRange = formatDateRange(loan);
+            if (threads > 1 && entries.size() > CHUNK_RECORDS) {
+                writeRecordsInParallel(entries, loan, dateRange, channel, threads);
+                return true;
+            }
+            SecureRecordEncoder encoder = new SecureRecordEncoder(loan, dateRange, RECORD_SEPARATOR);
             
             // Write each amortization entry as a horizontal record with hash
             int recordId = 1;
             for (AmortizationEntry entry : entries) {
-                // Build record data (pipe-delimited, no spaces as fillers)
-                String recordData = String.format("%d|Loan Payment #%d|Amortization|Active|₱%.2f|%.2f%%|₱%.2f|₱%.2f|₱%.2f|%d|%s",
-                    recordId,
-                    entry.getPaymentNumber(),
-                    loan.calculateAmountFinanced(),
-                    loan.getAnnualInterestRate(),
-                    entry.getPayment(),
-                    entry.getInterest(),
-                    entry.getTotalPaid(),
-                    loan.getLoanTermYears(),
-                    dateRange
-                );
-                
-                // Generate SHA-256 hash for this record
-                String hash = hashSHA256(recordData);
-                
-                // Write: RECORD_DATA | HASH
-                writer.println(recordData + " | " + hash);
-                writer.println(RECORD_SEPARATOR);
-                
-                recordId++;
+                encoder.encode(recordId++, entry);
+                if (encoder.length() >= WRITE_BLOCK_BYTES) {
+                    encoder.drainTo(channel);
+                }
             }
+            encoder.drainTo(channel);
 
             return true;
-        } catch (IOException e) {
+        } catch (IOException | InvalidPathException e) {
             System.err.println("Error exporting secure file: " + e.getMessage());
             return false;
+        } catch (ExecutionException e) {
+            System.err.println("Error exporting secure file: " + e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Encode chunks on a worker pool and write them in order from this
+     * thread. Each in-flight chunk owns an encoder, and encoders are reused
+     * once written, so memory stays at a fixed number of chunk buffers.
+     */
+    private static void writeRecordsInParallel(List<AmortizationEntry> entries, LoanCalculation loan,
+            String dateRange, FileChannel channel, int threads)
+            throws IOException, ExecutionException, InterruptedException {
+        List<AmortizationEntry> rows = entries instanceof RandomAccess ? entries : new ArrayList<>(entries);
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "secure-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<SecureRecordEncoder> idle = new ArrayDeque<>();
+        for (int i = 0; i < threads * 2; i++) {
+            idle.push(new SecureRecordEncoder(loan, dateRange, RECORD_SEPARATOR));
+        }
+        ArrayDeque<Future<SecureRecordEncoder>> pending = new ArrayDeque<>();
+        try {
+            int next = 0;
+            while (next < rows.size() || !pending.isEmpty()) {
+                while (next < rows.size() && !idle.isEmpty()) {
+                    int from = next;
+                    int to = Math.min(rows.size(), from + CHUNK_RECORDS);
+                    SecureRecordEncoder encoder = idle.pop();
+                    pending.add(workers.submit(() -> {
+                        for (int i = from; i < to; i++) {
+                            encoder.encode(i + 1, rows.get(i));
+                        }
+                        return encoder;
+                    }));
+                    next = to;
+                }
+                SecureRecordEncoder done = pending.remove().get();
+                done.drainTo(channel);
+                idle.push(done);
+            }
+        } finally {
+            workers.shutdownNow();
         }
     }
 
+    /**
+     * Date range of the loan term starting today, e.g. "Jan 5, 2025 - Jan 5, 2030"
+     */
+    private static String formatDateRange(LoanCalculation loan) {
+        LocalDate startDate = LocalDate.now();
+        int termMonths = loan.getLoanTermYears() * 12;
+        LocalDate endDate = startDate.plusMonths(termMonths);
+        return startDate.format(DATE_FORMAT) + " - " + endDate.format(DATE_FORMAT);
+    }
+
     /**
      * Export with file chooser dialog
      */
@@ -145,65 +216,204 @@ public class SecureFileExporter {
     }
 
     /**
-     * Import and parse secure TXT file, returns list of parsed records
+     * Import and parse secure TXT file, returns list of parsed records.
+     * Uses one worker per core, see {@link #importSecureFile(String, int)}.
      */
     public static List<ImportedRecord> importSecureFile(String filePath) throws IOException, SecurityException {
+        return importSecureFile(filePath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Import with the given number of worker threads. With more than one
+     * thread the file is read in large blocks cut at line ends, and the
+     * workers decode, hash-verify and parse the blocks in parallel while this
+     * thread collects the records in file order; at most two blocks per
+     * worker are in memory at once. The records are the same either way.
+     */
+    public static List<ImportedRecord> importSecureFile(String filePath, int threads)
+            throws IOException, SecurityException {
+        if (threads <= 1) {
+            return importSecureFileSequential(filePath);
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            return readRecordsInParallel(channel, threads);
+        } catch (InvalidPathException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static List<ImportedRecord> importSecureFileSequential(String filePath) throws IOException {
         List<ImportedRecord> records = new ArrayList<>();
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
             String line;
             
             while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                
-                // Skip separators and empty lines
-                if (line.isEmpty() || line.equals(RECORD_SEPARATOR) || line.startsWith("---")) {
+                ImportedRecord record = parseRecordLine(line);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+        }
+        
+        return records;
+    }
+
+    /**
+     * Parse and verify one line of a secure file
+     * @return the record, or null for separators, blank and malformed lines
+     */
+    private static ImportedRecord parseRecordLine(String line) {
+        line = line.trim();
+        
+        // Skip separators and empty lines
+        if (line.isEmpty() || line.equals(RECORD_SEPARATOR) || line.startsWith("---")) {
+            return null;
+        }
+        
+        // Parse record: DATA | HASH
+        int hashSeparator = line.lastIndexOf(" | ");
+        if (hashSeparator == -1) {
+            return null; // Invalid format
+        }
+        
+        String recordData = line.substring(0, hashSeparator).trim();
+        String storedHash = line.substring(hashSeparator + 3).trim();
+        
+        // Verify hash
+        String calculatedHash = hashSHA256(recordData);
+        boolean hashValid = calculatedHash.equals(storedHash);
+        
+        // Parse pipe-delimited data
+        String[] parts = recordData.split("\\|");
+        if (parts.length < 10) {
+            return null;
+        }
+        ImportedRecord record = new ImportedRecord();
+        record.setId(parts[0].trim());
+        record.setName(parts[1].trim());
+        record.setType(parts[2].trim());
+        record.setStatus(parts[3].trim());
+        record.setAmount(parts[4].trim());
+        record.setRate(parts[5].trim());
+        record.setPayment(parts[6].trim());
+        record.setInterest(parts[7].trim());
+        record.setTotal(parts[8].trim());
+        record.setTerm(parts[9].trim());
+        record.setDateRange(parts.length > 10 ? parts[10].trim() : "N/A");
+        record.setStoredHash(storedHash);
+        record.setCalculatedHash(calculatedHash);
+        record.setHashValid(hashValid);
+        record.setRawData(recordData);
+        return record;
+    }
+
+    /**
+     * Read blocks cut after their last line end and parse them on a worker
+     * pool, collecting the results in block order
+     */
+    private static List<ImportedRecord> readRecordsInParallel(FileChannel channel, int threads)
+            throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "secure-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<ImportedRecord> records = new ArrayList<>();
+        ArrayDeque<Future<List<ImportedRecord>>> pending = new ArrayDeque<>();
+        try {
+            byte[] block = new byte[READ_BLOCK_BYTES];
+            int filled = 0;
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                ByteBuffer target = ByteBuffer.wrap(block, filled, block.length - filled);
+                while (target.hasRemaining() && !endOfFile) {
+                    endOfFile = channel.read(target) < 0;
+                }
+                filled = target.position();
+                int cut = endOfFile ? filled : lastLineEnd(block, filled);
+                if (cut == 0) {
+                    if (!endOfFile) {
+                        // A line longer than the block: grow until it fits
+                        if (block.length >= MAX_READ_BLOCK_BYTES) {
+                            throw new IOException("Not a secure export file: a line is longer than "
+                                + (MAX_READ_BLOCK_BYTES >> 20) + " MB");
+                        }
+                        block = Arrays.copyOf(block, Math.min(block.length * 2, MAX_READ_BLOCK_BYTES));
+                    }
                     continue;
                 }
-                
-                // Parse record: DATA | HASH
-                int hashSeparator = line.lastIndexOf(" | ");
-                if (hashSeparator == -1) {
-                    continue; // Invalid format
+                byte[] chunk = Arrays.copyOf(block, cut);
+                System.arraycopy(block, cut, block, 0, filled - cut);
+                filled -= cut;
+                if (pending.size() == threads * 2) {
+                    records.addAll(pending.remove().get());
                 }
-                
-                String recordData = line.substring(0, hashSeparator).trim();
-                String storedHash = line.substring(hashSeparator + 3).trim();
-                
-                // Verify hash
-                String calculatedHash = hashSHA256(recordData);
-                boolean hashValid = calculatedHash.equals(storedHash);
-                
-                // Parse pipe-delimited data
-                String[] parts = recordData.split("\\|");
-                if (parts.length >= 10) {
-                    ImportedRecord record = new ImportedRecord();
-                    record.setId(parts[0].trim());
-                    record.setName(parts[1].trim());
-                    record.setType(parts[2].trim());
-                    record.setStatus(parts[3].trim());
-                    record.setAmount(parts[4].trim());
-                    record.setRate(parts[5].trim());
-                    record.setPayment(parts[6].trim());
-                    record.setInterest(parts[7].trim());
-                    record.setTotal(parts[8].trim());
-                    record.setTerm(parts[9].trim());
-                    record.setDateRange(parts.length > 10 ? parts[10].trim() : "N/A");
-                    record.setStoredHash(storedHash);
-                    record.setCalculatedHash(calculatedHash);
-                    record.setHashValid(hashValid);
-                    record.setRawData(recordData);
-                    
+                pending.add(workers.submit(() -> parseRecordBlock(chunk)));
+            }
+            while (!pending.isEmpty()) {
+                records.addAll(pending.remove().get());
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Error verifying records: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } finally {
+            workers.shutdownNow();
+        }
+        return records;
+    }
+
+    /**
+     * Get the length of the block up to its last complete line end, or 0 if
+     * there is none. A trailing \r may be the first half of \r\n, so it only
+     * ends a line once the byte after it has been read (and is not \n, which
+     * the backward scan would have met first).
+     */
+    private static int lastLineEnd(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n' || (bytes[i] == '\r' && i + 1 < length)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Split a block into lines the way BufferedReader does (\n, \r or \r\n)
+     * and parse each one
+     */
+    private static List<ImportedRecord> parseRecordBlock(byte[] chunk) {
+        String text = new String(chunk, StandardCharsets.UTF_8);
+        List<ImportedRecord> records = new ArrayList<>();
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                ImportedRecord record = parseRecordLine(text.substring(start, i));
+                if (record != null) {
                     records.add(record);
                 }
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            ImportedRecord record = parseRecordLine(text.substring(start));
+            if (record != null) {
+                records.add(record);
             }
         }
-        
         return records;
     }
 
     /**
-     * Import with file chooser and display dialog
+     * Import with file chooser and display dialog; the file is read in the
+     * background
      */
     public static void importWithFileChooser(Component parent) {
         JFileChooser fileChooser = new JFileChooser();
@@ -214,11 +424,83 @@ public class SecureFileExporter {
         
         if (result == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
-            
-            try {
+            parent.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            new ImportWorker(parent, file).execute();
+        }
+    }
+
+    /**
+     * Records read by {@link ImportWorker}, with the mapped file they are
+     * read from, if any
+     */
+    private static class LoadedImport {
+        int recordCount;
+        long invalidCount;
+        IntFunction<ImportedRecord> rows;
+        MappedSecureFile mapped;
+    }
+
+    /**
+     * Reads and verifies the chosen file off the EDT, then shows the
+     * imported data
+     */
+    private static class ImportWorker extends SwingWorker<LoadedImport, Void> {
+
+        private final Component parent;
+        private final File file;
+
+        ImportWorker(Component parent, File file) {
+            this.parent = parent;
+            this.file = file;
+        }
+
+        @Override
+        protected LoadedImport doInBackground() throws IOException {
+            LoadedImport loaded = new LoadedImport();
+            if (file.length() >= MAPPED_IMPORT_BYTES) {
+                // Large files stay on disk; the tables read the rows they show
+                MappedSecureFile mapped = MappedSecureFile.open(file.getAbsolutePath());
+                loaded.mapped = mapped;
+                loaded.recordCount = mapped.size();
+                loaded.invalidCount = mapped.getTamperedCount();
+                loaded.rows = row -> mapped.get(row).toImportedRecord();
+            } else {
                 List<ImportedRecord> records = importSecureFile(file.getAbsolutePath());
-                
-                if (records.isEmpty()) {
+                loaded.recordCount = records.size();
+                // Check for any tampered records
+                loaded.invalidCount = records.stream().filter(r -> !r.isHashValid()).count();
+                loaded.rows = records::get;
+            }
+            return loaded;
+        }
+
+        @Override
+        protected void done() {
+            parent.setCursor(Cursor.getDefaultCursor());
+            LoadedImport loaded;
+            try {
+                loaded = get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SecurityException) {
+                    JOptionPane.showMessageDialog(parent,
+                        "Security Error: " + cause.getMessage(),
+                        "Data Integrity Error",
+                        JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(parent,
+                        "Error reading file: " + cause.getMessage(),
+                        "Import Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+                return;
+            }
+
+            try {
+                if (loaded.recordCount == 0) {
                     JOptionPane.showMessageDialog(parent,
                         "No valid records found in the file.",
                         "Import Error",
@@ -226,22 +508,13 @@ public class SecureFileExporter {
                     return;
                 }
                 
-                // Check for any tampered records
-                long invalidCount = records.stream().filter(r -> !r.isHashValid()).count();
-                
-                // Show import dialog with data
-                showImportedDataDialog(parent, records, file.getName(), invalidCount);
-                
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(parent,
-                    "Error reading file: " + e.getMessage(),
-                    "Import Error",
-                    JOptionPane.ERROR_MESSAGE);
-            } catch (SecurityException e) {
-                JOptionPane.showMessageDialog(parent,
-                    "Security Error: " + e.getMessage(),
-                    "Data Integrity Error",
-                    JOptionPane.ERROR_MESSAGE);
+                // Show import dialog with data; it is modal, so this returns once it is closed
+                showImportedDataDialog(parent, loaded.recordCount, loaded.rows, file.getName(),
+                    loaded.invalidCount);
+            } finally {
+                if (loaded.mapped != null) {
+                    loaded.mapped.close();
+                }
             }
         }
     }
@@ -249,7 +522,8 @@ public class SecureFileExporter {
     /**
      * Show dialog with imported data in tabbed pane
      */
-    private static void showImportedDataDialog(Component parent, List<ImportedRecord> records, 
+    private static void showImportedDataDialog(Component parent, int recordCount,
+                                                IntFunction<ImportedRecord> rows,
                                                 String fileName, long invalidCount) {
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(parent), 
             "Imported Data - " + fileName, true);
@@ -268,7 +542,7 @@ public class SecureFileExporter {
         titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
         
         String statusText = String.format("Total Records: %d | Valid: %d | Tampered: %d",
-            records.size(), records.size() - invalidCount, invalidCount);
+            recordCount, recordCount - invalidCount, invalidCount);
         JLabel statusLabel = new JLabel(statusText);
         statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         statusLabel.setForeground(invalidCount > 0 ? new Color(220, 38, 38) : new Color(34, 197, 94));
@@ -282,11 +556,11 @@ public class SecureFileExporter {
         tabbedPane.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         
         // Tab 1: Data Table
-        JPanel dataPanel = createDataTablePanel(records);
+        JPanel dataPanel = createDataTablePanel(recordCount, rows);
         tabbedPane.addTab("Loan Records", dataPanel);
         
         // Tab 2: Hash Verification
-        JPanel hashPanel = createHashVerificationPanel(records);
+        JPanel hashPanel = createHashVerificationPanel(recordCount, rows);
         tabbedPane.addTab("SHA-256 Hash Verification", hashPanel);
         
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
@@ -309,7 +583,7 @@ public class SecureFileExporter {
     /**
      * Create data table panel
      */
-    private static JPanel createDataTablePanel(List<ImportedRecord> records) {
+    private static JPanel createDataTablePanel(int recordCount, IntFunction<ImportedRecord> rows) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -317,15 +591,8 @@ public class SecureFileExporter {
         String[] columns = {"ID", "Name", "Type", "Status", "Amount", "Rate", "Payment", 
                            "Interest", "Total", "Term", "Date Range", "Hash Valid"};
         
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        
-        for (ImportedRecord record : records) {
-            Object[] row = {
+        RecordTableModel model = new RecordTableModel(columns, recordCount, rows, record ->
+            new Object[] {
                 record.getId(),
                 record.getName(),
                 record.getType(),
@@ -338,9 +605,7 @@ public class SecureFileExporter {
                 record.getTerm(),
                 record.getDateRange(),
                 record.isHashValid() ? "✓ Valid" : "✗ Tampered"
-            };
-            model.addRow(row);
-        }
+            });
         
         JTable table = new JTable(model);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
@@ -375,7 +640,7 @@ public class SecureFileExporter {
     /**
      * Create hash verification panel
      */
-    private static JPanel createHashVerificationPanel(List<ImportedRecord> records) {
+    private static JPanel createHashVerificationPanel(int recordCount, IntFunction<ImportedRecord> rows) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -392,29 +657,21 @@ public class SecureFileExporter {
         // Hash table
         String[] columns = {"Record ID", "Data Preview", "Stored Hash", "Calculated Hash", "Status"};
         
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        
-        for (ImportedRecord record : records) {
+        RecordTableModel model = new RecordTableModel(columns, recordCount, rows, record -> {
             // Truncate data preview
             String preview = record.getRawData();
             if (preview.length() > 50) {
                 preview = preview.substring(0, 50) + "...";
             }
             
-            Object[] row = {
+            return new Object[] {
                 record.getId(),
                 preview,
                 record.getStoredHash(),
                 record.getCalculatedHash(),
                 record.isHashValid() ? "✓ MATCH" : "✗ MISMATCH"
             };
-            model.addRow(row);
-        }
+        });
         
         JTable table = new JTable(model);
         table.setFont(new Font("Consolas", Font.PLAIN, 11));
@@ -456,6 +713,51 @@ public class SecureFileExporter {
         return panel;
     }
 
+    /**
+     * Read-only table over imported records that builds a row's cells only
+     * when the row is shown, remembering the last row for its other columns
+     */
+    private static class RecordTableModel extends AbstractTableModel {
+        private final String[] columns;
+        private final int rowCount;
+        private final IntFunction<ImportedRecord> rows;
+        private final Function<ImportedRecord, Object[]> cells;
+        private int cachedRow = -1;
+        private Object[] cachedCells;
+
+        RecordTableModel(String[] columns, int rowCount, IntFunction<ImportedRecord> rows,
+                         Function<ImportedRecord, Object[]> cells) {
+            this.columns = columns;
+            this.rowCount = rowCount;
+            this.rows = rows;
+            this.cells = cells;
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (row != cachedRow) {
+                cachedCells = cells.apply(rows.apply(row));
+                cachedRow = row;
+            }
+            return cachedCells[column];
+        }
+    }
+
     /**
      * Data class for imported records
      */
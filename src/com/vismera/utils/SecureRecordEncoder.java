@@ -0,0 +1,250 @@
+package com.vismera.utils;
+
+import com.vismera.models.AmortizationEntry;
+import com.vismera.models.LoanCalculation;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Encodes amortization entries as secure export records straight into UTF-8
+ * bytes, producing exactly what the String.format based export wrote.
+ *
+ * The fields that are the same for every record of a loan (amount, rate,
+ * term, date range) are formatted once. Per record, integers and amounts are
+ * written digit by digit into a reusable buffer, the SHA-256 digest is
+ * reused per thread and the hash is hex encoded from a lookup table.
+ * Amounts use a fixed-point fast path and fall back to String.format
+ * whenever the rounding could differ from it (values within a hair of a
+ * half cent, negative or huge values, or a default locale that does not
+ * format numbers with ASCII digits and a dot).
+ *
+ * @author Vismerá Inc.
+ */
+final class SecureRecordEncoder {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not found", e);
+        }
+    });
+    private static final int HASH_BYTES = 32;
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[i * 2] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[i * 2 + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    /** Largest amount formatted without String.format */
+    private static final double FAST_LIMIT = 1e15;
+    /**
+     * Distance from a half cent, in cents, below which the rounding is left
+     * to String.format. It rounds the shortest decimal form of the value,
+     * which can sit on the other side of a half cent than the exact binary
+     * value; the gap is at most half an ulp, so 64 ulps cover it.
+     */
+    private static final double TIE_MARGIN = 1e-9;
+    private static final double TIE_MARGIN_ULPS = 64;
+
+    private static final byte[] NAME = "|Loan Payment #".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PESO_FIELD = "|₱".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HASH_SEPARATOR = " | ".getBytes(StandardCharsets.UTF_8);
+
+    private final boolean fastFormat;
+    private final byte[] loanFields;
+    private final byte[] tailFields;
+    private final byte[] recordEnd;
+    private byte[] buffer = new byte[1 << 16];
+    private int length;
+
+    /**
+     * @param separatorLine line written after each record
+     */
+    SecureRecordEncoder(LoanCalculation loan, String dateRange, String separatorLine) {
+        this.fastFormat = String.format("%.2f|%d", 1234.5, -12).equals("1234.50|-12");
+        // "|Amortization|Active|₱<amount>|<rate>%|₱" and "|<term>|<dateRange>"
+        this.loanFields = String.format("|Amortization|Active|₱%.2f|%.2f%%|₱",
+            loan.calculateAmountFinanced(), loan.getAnnualInterestRate()).getBytes(StandardCharsets.UTF_8);
+        this.tailFields = String.format("|%d|%s", loan.getLoanTermYears(), dateRange)
+            .getBytes(StandardCharsets.UTF_8);
+        String newline = System.lineSeparator();
+        this.recordEnd = (newline + separatorLine + newline).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Append one record line ("data | HASH") and the separator line
+     */
+    void encode(int recordId, AmortizationEntry entry) {
+        ensureCapacity(256);
+        int start = length;
+        appendInt(recordId);
+        append(NAME);
+        appendInt(entry.getPaymentNumber());
+        append(loanFields);
+        appendAmount(entry.getPayment());
+        append(PESO_FIELD);
+        appendAmount(entry.getInterest());
+        append(PESO_FIELD);
+        appendAmount(entry.getTotalPaid());
+        append(tailFields);
+        int dataEnd = length;
+
+        append(HASH_SEPARATOR);
+        ensureCapacity(HASH_BYTES * 2 + recordEnd.length);
+        length = sha256Hex(buffer, start, dataEnd - start, buffer, length);
+        append(recordEnd);
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * Write the encoded bytes to the channel and start over
+     */
+    void drainTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, length);
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        length = 0;
+    }
+
+    // ==================== HASHING ====================
+
+    /**
+     * SHA-256 of the input range, written as 64 uppercase hex digits
+     * @return the offset after the hex digits
+     */
+    static int sha256Hex(byte[] input, int offset, int count, byte[] out, int outOffset) {
+        MessageDigest digest = SHA256.get();
+        digest.update(input, offset, count);
+        return hex(digest.digest(), out, outOffset);
+    }
+
+    /**
+     * This thread's SHA-256 digest, for hashing input that is not in an array
+     */
+    static MessageDigest sha256() {
+        return SHA256.get();
+    }
+
+    static int hex(byte[] hash, byte[] out, int offset) {
+        for (byte b : hash) {
+            out[offset++] = HEX[(b >> 4) & 0xF];
+            out[offset++] = HEX[b & 0xF];
+        }
+        return offset;
+    }
+
+    // ==================== FORMATTING ====================
+
+    /**
+     * Same output as String.format("%.2f", value)
+     */
+    private void appendAmount(double value) {
+        // The sign bit test also sends -0.0 to String.format, which prints it as "-0.00"
+        if (fastFormat && Double.doubleToRawLongBits(value) >= 0 && value < FAST_LIMIT) {
+            // Splitting off the integer part is exact, so the cents keep full precision
+            long whole = (long) value;
+            double cents = (value - whole) * 100;
+            int wholeCents = (int) cents;
+            double fraction = cents - wholeCents;
+            if (Math.abs(fraction - 0.5) > TIE_MARGIN + TIE_MARGIN_ULPS * Math.ulp(value)) {
+                int rounded = fraction > 0.5 ? wholeCents + 1 : wholeCents;
+                if (rounded == 100) {
+                    whole++;
+                    rounded = 0;
+                }
+                appendLong(whole);
+                ensureCapacity(3);
+                buffer[length++] = '.';
+                buffer[length++] = (byte) ('0' + rounded / 10);
+                buffer[length++] = (byte) ('0' + rounded % 10);
+                return;
+            }
+        }
+        append(String.format("%.2f", value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void appendInt(int value) {
+        if (fastFormat) {
+            appendLong(value);
+        } else {
+            append(String.format("%d", value).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void appendLong(long value) {
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            if (value == Long.MIN_VALUE) {
+                append("9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            value = -value;
+        }
+        if (value <= Integer.MAX_VALUE) {
+            appendDigits((int) value, digitCount((int) value));
+            return;
+        }
+        // Nine digits at a time keeps the arithmetic in ints
+        long high = value / 1_000_000_000;
+        appendLong(high);
+        appendDigits((int) (value - high * 1_000_000_000), 9);
+    }
+
+    /**
+     * Write a non-negative int as exactly count digits, zero padded
+     */
+    private void appendDigits(int value, int count) {
+        int position = length + count;
+        length = position;
+        while (value >= 100) {
+            int quotient = value / 100;
+            int pair = (value - quotient * 100) * 2;
+            buffer[--position] = DIGIT_PAIRS[pair + 1];
+            buffer[--position] = DIGIT_PAIRS[pair];
+            value = quotient;
+        }
+        buffer[--position] = (byte) ('0' + value % 10);
+        if (value >= 10) {
+            buffer[--position] = (byte) ('0' + value / 10);
+        }
+        while (position > length - count) {
+            buffer[--position] = '0';
+        }
+    }
+
+    private static int digitCount(int value) {
+        int count = 1;
+        for (int limit = 10; count < 10 && value >= limit; limit *= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            byte[] grown = new byte[Math.max(buffer.length * 2, length + extra)];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+    }
+}
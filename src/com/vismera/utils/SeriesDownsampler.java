@@ -0,0 +1,79 @@
+package com.vismera.utils;
+
+/**
+ * Reduces long numeric series to a few points per pixel for charting.
+ *
+ * Uses Largest-Triangle-Three-Buckets (LTTB): the first and last points are
+ * kept, the rest are split into equal buckets, and each bucket keeps the
+ * point forming the largest triangle with the previously kept point and the
+ * average of the next bucket. Peaks and turning points survive, unlike with
+ * plain striding or averaging.
+ *
+ * @author Vismerá Inc.
+ */
+public final class SeriesDownsampler {
+
+    private SeriesDownsampler() {
+    }
+
+    /**
+     * Pick at most threshold points of the series
+     * @param xs x values in ascending order
+     * @param ys y values, same length as xs
+     * @return indexes of the kept points in ascending order
+     */
+    public static int[] lttb(double[] xs, double[] ys, int threshold) {
+        int length = xs.length;
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        kept[count++] = 0;
+
+        // Buckets cover the points between the fixed first and last points
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += xs[i];
+                averageY += ys[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            double previousX = xs[previous];
+            double previousY = ys[previous];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; the factor does not change the winner
+                double area = Math.abs((previousX - averageX) * (ys[i] - previousY)
+                    - (previousX - xs[i]) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[count++] = chosen;
+            previous = chosen;
+        }
+
+        kept[count++] = length - 1;
+        return kept;
+    }
+}
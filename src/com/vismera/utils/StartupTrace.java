@@ -0,0 +1,226 @@
+package com.vismera.utils;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Records named startup phases and reports them when the first frame is
+ * shown.
+ *
+ * Enabled with -Dvismera.startup.trace=true. Each phase records its thread,
+ * its start and duration in nanoseconds since process start, and the number
+ * of classes loaded while it ran (counted JVM-wide, so phases running at
+ * the same time on different threads share their class loads). Phases are
+ * also committed as JFR events, and the report as one summary event, so a
+ * recording started with -XX:StartFlightRecording shows them on the
+ * timeline. When tracing is off, {@link #phase(String)} returns a shared
+ * no-op and nothing else is loaded.
+ *
+ * Usage: {@code try (StartupTrace.Phase phase = StartupTrace.phase("Look and feel")) { ... }}
+ * The phase variable is never read, so methods that time phases carry
+ * {@code @SuppressWarnings("try")} to keep -Xlint:all quiet.
+ *
+ * @author Vismerá Inc.
+ */
+public final class StartupTrace {
+
+    private static final Phase DISABLED = new Phase(null, 0);
+
+    private static volatile boolean recording = Boolean.getBoolean("vismera.startup.trace");
+    private static final ConcurrentLinkedQueue<Phase> phases = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private static long originNanos;
+    private static ClassLoadingMXBean classLoading;
+
+    static {
+        if (recording) {
+            // Nanosecond clock positioned at process start, so the JVM's own startup shows as a phase
+            Instant processStart = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+            long sinceStart = Duration.between(processStart, Instant.now()).toNanos();
+            originNanos = System.nanoTime() - sinceStart;
+            classLoading = ManagementFactory.getClassLoadingMXBean();
+            Phase jvm = new Phase("JVM startup", 0);
+            jvm.startNanos = originNanos;
+            jvm.startClasses = 0;
+            jvm.close();
+            phases.add(jvm);
+        }
+    }
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Start a phase; close it (try-with-resources) when the phase ends
+     */
+    public static Phase phase(String name) {
+        if (!recording) {
+            return DISABLED;
+        }
+        int[] level = depth.get();
+        Phase phase = new Phase(name, level[0]++);
+        phases.add(phase);
+        return phase;
+    }
+
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Print the startup report and stop recording new phases. Called once
+     * the main window has painted.
+     */
+    public static void firstFrameShown() {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        long now = System.nanoTime();
+        long classes = classLoading.getTotalLoadedClassCount();
+
+        StartupReportEvent event = new StartupReportEvent();
+        event.timeToFirstFrame = now - originNanos;
+        event.classesLoaded = classes;
+        event.commit();
+
+        System.out.println(buildReport(now, classes));
+    }
+
+    // ==================== REPORT ====================
+
+    private static String buildReport(long now, long classes) {
+        List<Phase> snapshot = new ArrayList<>(phases);
+        snapshot.sort((a, b) -> Long.compare(a.startNanos, b.startNanos));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Startup trace: first frame at %.1f ms, %d classes loaded%n",
+            millis(now - originNanos), classes));
+        report.append(String.format("  %-40s %-30s %10s %12s %8s%n",
+            "Phase", "Thread", "Start ms", "Duration ms", "Classes"));
+
+        // Repeated phases such as image loads are summed into one row
+        Map<String, Integer> counts = new HashMap<>();
+        for (Phase phase : snapshot) {
+            if (phase.endNanos != 0) {
+                counts.merge(phase.name, 1, Integer::sum);
+            }
+        }
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        for (Phase phase : snapshot) {
+            if (phase.endNanos != 0 && counts.get(phase.name) > 1) {
+                long[] total = totals.computeIfAbsent(phase.name, name -> new long[] { phase.startNanos, 0, 0 });
+                total[1] += phase.endNanos - phase.startNanos;
+                total[2] += phase.classesLoaded;
+            } else {
+                appendRow(report, phase, now);
+            }
+        }
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            long[] total = entry.getValue();
+            report.append(String.format("  %-40s %-30s %10.1f %12.3f %8d%n",
+                entry.getKey() + " (x" + counts.get(entry.getKey()) + ", total)", "various",
+                millis(total[0] - originNanos), millis(total[1]), total[2]));
+        }
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, Phase phase, long now) {
+        String indented = "  ".repeat(phase.depth) + phase.name;
+        boolean running = phase.endNanos == 0;
+        report.append(String.format("  %-40s %-30s %10.1f %12s %8s%n",
+            indented, phase.thread,
+            millis(phase.startNanos - originNanos),
+            running ? String.format("%.3f+", millis(now - phase.startNanos))
+                : String.format("%.3f", millis(phase.endNanos - phase.startNanos)),
+            running ? "-" : String.valueOf(phase.classesLoaded)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // ==================== PHASES ====================
+
+    /**
+     * One timed phase; closing it records the end time
+     */
+    public static final class Phase implements AutoCloseable {
+
+        private final String name;
+        private final int depth;
+        private final PhaseEvent event;
+        private String thread;
+        private long startNanos;
+        private long startClasses;
+        private volatile long endNanos;
+        private long classesLoaded;
+
+        private Phase(String name, int depth) {
+            this.name = name;
+            this.depth = depth;
+            if (name == null) {
+                event = null;
+                return;
+            }
+            thread = Thread.currentThread().getName();
+            startClasses = classLoading.getTotalLoadedClassCount();
+            event = new PhaseEvent();
+            event.begin();
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (event == null || endNanos != 0) {
+                return;
+            }
+            classesLoaded = classLoading.getTotalLoadedClassCount() - startClasses;
+            endNanos = System.nanoTime();
+            StartupTrace.depth.get()[0] = depth;
+            event.end();
+            event.phase = name;
+            event.classesLoaded = classesLoaded;
+            event.commit();
+        }
+    }
+
+    @Name("com.vismera.StartupPhase")
+    @Label("Startup Phase")
+    @Category({ "Vismera", "Startup" })
+    @Description("A named phase of application startup")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Classes Loaded")
+        long classesLoaded;
+    }
+
+    @Name("com.vismera.StartupReport")
+    @Label("Startup Report")
+    @Category({ "Vismera", "Startup" })
+    @Description("Time from process start to the first painted frame")
+    static class StartupReportEvent extends Event {
+        @Label("Time To First Frame")
+        @Timespan(Timespan.NANOSECONDS)
+        long timeToFirstFrame;
+
+        @Label("Classes Loaded")
+        long classesLoaded;
+    }
+}
@@ -0,0 +1,222 @@
+package com.vismera.utils;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+
+/**
+ * Loads car images off the event dispatch thread and keeps the scaled
+ * thumbnails in a bounded in-memory cache.
+ *
+ * Thumbnails are keyed by image path and target size. The cache evicts the
+ * least recently used thumbnails once their pixel data exceeds the byte
+ * budget. Concurrent requests for the same thumbnail share one load, so an
+ * image is never decoded twice while it is cached or in flight. Misses fall
+ * back to the on-disk cache before decoding the full-resolution image.
+ *
+ * @author Vismerá Inc.
+ */
+public class ThumbnailCache {
+
+    private static final String IMAGE_FOLDER = "/resources/images/";
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static ThumbnailCache instance;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, BufferedImage> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<BufferedImage>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> missing = new ConcurrentHashMap<>();
+    private final ExecutorService loader;
+    private final ThumbnailDiskCache disk;
+    private long cachedBytes;
+
+    private ThumbnailCache(long maxBytes, ThumbnailDiskCache disk) {
+        this.maxBytes = maxBytes;
+        this.disk = disk;
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        this.loader = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "thumbnail-loader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        // Listing the folder can take a while; keep it off the caller's thread
+        loader.execute(disk::removeStaleTempFiles);
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized ThumbnailCache getInstance() {
+        if (instance == null) {
+            instance = new ThumbnailCache(Long.getLong("vismera.thumbnails.maxBytes", DEFAULT_MAX_BYTES),
+                ThumbnailDiskCache.fromSystemProperties());
+        }
+        return instance;
+    }
+
+    /**
+     * Get a thumbnail if it is already cached, without loading it
+     */
+    public BufferedImage getIfCached(String imagePath, int width, int height) {
+        synchronized (cache) {
+            return cache.get(key(imagePath, width, height));
+        }
+    }
+
+    /**
+     * Load a thumbnail in the background. The future completes with null when
+     * the image does not exist or cannot be decoded; callers keep their
+     * placeholder in that case. Callbacks run on a loader thread.
+     */
+    public CompletableFuture<BufferedImage> load(String imagePath, int width, int height) {
+        String key = key(imagePath, width, height);
+        BufferedImage cached = getIfCached(imagePath, width, height);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (imagePath == null || imagePath.isEmpty() || missing.containsKey(imagePath)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return inFlight.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+            try {
+                BufferedImage thumbnail = readThumbnail(imagePath, width, height);
+                if (thumbnail == null) {
+                    missing.put(imagePath, Boolean.TRUE);
+                } else {
+                    put(key, thumbnail);
+                }
+                return thumbnail;
+            } finally {
+                inFlight.remove(key);
+            }
+        }, loader));
+    }
+
+    /**
+     * Load thumbnails for the given images in the background so they are in
+     * memory (and on disk for later starts) before cards ask for them
+     */
+    public void preload(Collection<String> imagePaths, int width, int height) {
+        for (String imagePath : imagePaths) {
+            load(imagePath, width, height);
+        }
+    }
+
+    /**
+     * Get the number of bytes of pixel data currently cached
+     */
+    public long getCachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Load a thumbnail from the disk cache, or decode the image from the
+     * resources folder, scale it and store it on disk for the next start
+     */
+    @SuppressWarnings("try") // startup phases are only opened and closed
+    private BufferedImage readThumbnail(String imagePath, int width, int height) {
+        URL imageUrl = ThumbnailCache.class.getResource(IMAGE_FOLDER + imagePath);
+        if (imageUrl == null) {
+            return null;
+        }
+        try {
+            byte[] source;
+            try (InputStream in = imageUrl.openStream()) {
+                source = in.readAllBytes();
+            }
+            String diskKey = ThumbnailDiskCache.keyOf(source, width, height);
+            try (StartupTrace.Phase phase = StartupTrace.phase("Thumbnail disk read")) {
+                BufferedImage thumbnail = disk.read(diskKey, width, height);
+                if (thumbnail != null) {
+                    return thumbnail;
+                }
+            }
+            BufferedImage thumbnail;
+            try (StartupTrace.Phase phase = StartupTrace.phase("Image decode and scale")) {
+                BufferedImage original = ImageIO.read(new ByteArrayInputStream(source));
+                if (original == null) {
+                    return null;
+                }
+                thumbnail = scale(original, width, height);
+            }
+            disk.write(diskKey, thumbnail);
+            return thumbnail;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading car image " + imagePath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Scale by halving with bilinear filtering until close to the target, then
+     * one final step. Gives smooth results like Image.SCALE_SMOOTH at a
+     * fraction of the cost.
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        while (w / 2 >= width && h / 2 >= height) {
+            w /= 2;
+            h /= 2;
+            current = draw(current, w, h);
+        }
+        return draw(current, width, height);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void put(String key, BufferedImage thumbnail) {
+        long bytes = (long) thumbnail.getWidth() * thumbnail.getHeight() * 4;
+        synchronized (cache) {
+            BufferedImage previous = cache.put(key, thumbnail);
+            if (previous != null) {
+                cachedBytes -= (long) previous.getWidth() * previous.getHeight() * 4;
+            }
+            cachedBytes += bytes;
+            Iterator<Map.Entry<String, BufferedImage>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > maxBytes && eldest.hasNext()) {
+                BufferedImage evicted = eldest.next().getValue();
+                if (evicted == thumbnail) {
+                    break;
+                }
+                cachedBytes -= (long) evicted.getWidth() * evicted.getHeight() * 4;
+                eldest.remove();
+            }
+        }
+    }
+
+    private static String key(String imagePath, int width, int height) {
+        return imagePath + "@" + width + "x" + height;
+    }
+}
@@ -0,0 +1,180 @@
+package com.vismera.utils;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Persistent cache of pre-scaled thumbnails on disk.
+ *
+ * Files are keyed by the SHA-256 of the source image bytes and the target
+ * size, so a changed image never serves a stale thumbnail. Each file holds a
+ * 16-byte header (magic, version, width, height) followed by the raw ARGB
+ * pixels, and is read back with a memory-mapped bulk copy instead of a PNG
+ * decode and rescale.
+ *
+ * The folder defaults to ~/.vismera/thumbnails and can be overridden with the
+ * vismera.thumbnails.dir system property. Temporary files left by a write
+ * that never finished are removed by {@link #removeStaleTempFiles()}.
+ *
+ * @author Vismerá Inc.
+ */
+public class ThumbnailDiskCache {
+
+    private static final int MAGIC = 0x56544842; // "VTHB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    /** Temporary files this old are no longer being written, even by another instance */
+    private static final long STALE_TEMP_MILLIS = 60 * 60 * 1000L;
+
+    private final Path directory;
+
+    public ThumbnailDiskCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Create a cache in the configured folder
+     */
+    public static ThumbnailDiskCache fromSystemProperties() {
+        String dir = System.getProperty("vismera.thumbnails.dir");
+        Path directory = dir != null
+            ? Paths.get(dir)
+            : Paths.get(System.getProperty("user.home"), ".vismera", "thumbnails");
+        return new ThumbnailDiskCache(directory);
+    }
+
+    /**
+     * Get the cache key for an image's bytes at a target size
+     */
+    public static String keyOf(byte[] source, int width, int height) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source);
+            StringBuilder key = new StringBuilder(digest.length * 2 + 16);
+            for (byte b : digest) {
+                key.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+            return key.append('_').append(width).append('x').append(height).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Read a cached thumbnail, or null if it is missing or unreadable
+     */
+    public BufferedImage read(String key, int width, int height) {
+        Path file = fileOf(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long expected = HEADER_BYTES + (long) width * height * 4;
+            if (channel.size() != expected) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expected);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getInt() != width || buffer.getInt() != height) {
+                return null;
+            }
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            buffer.asIntBuffer().get(pixels);
+            return image;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading cached thumbnail " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a thumbnail. The file is written under a temporary name and then
+     * moved into place, so readers never see a partial file.
+     */
+    public boolean write(String key, BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + pixels.length * 4);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height);
+        IntBuffer body = buffer.asIntBuffer();
+        body.put(pixels);
+        buffer.position(0);
+
+        Path file = fileOf(key);
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key, ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing cached thumbnail " + file + ": " + e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Removed as stale once the cache is opened again
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Delete the temporary files of writes that never finished (the process
+     * died, or the temporary file could not be deleted), leaving recent ones
+     * that another running instance may still be writing
+     */
+    public void removeStaleTempFiles() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        long staleBefore = System.currentTimeMillis() - STALE_TEMP_MILLIS;
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path temp : temps) {
+                try {
+                    if (Files.getLastModifiedTime(temp).toMillis() < staleBefore) {
+                        Files.deleteIfExists(temp);
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error removing stale thumbnail " + temp + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error listing thumbnail cache " + directory + ": " + e.getMessage());
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + ".thumb");
+    }
+}
@@ -0,0 +1,358 @@
+package com.vismera.views;
+
+import com.vismera.models.AmortizationEntry;
+import com.vismera.utils.FormatUtils;
+import com.vismera.utils.SeriesDownsampler;
+import com.vismera.utils.UIStyler;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import javax.swing.*;
+
+/**
+ * Charts of an amortization schedule: remaining balance and cumulative
+ * interest on top, the principal/interest split of each payment below.
+ *
+ * Series are copied into primitive arrays once and downsampled with LTTB to
+ * about one point per pixel, so long schedules draw as fast as short ones.
+ * Axes, grid and lines are rendered into a cached image that is only redrawn
+ * when the size changes; hovering just paints the crosshair and tooltip on
+ * top of it, reading the exact values from the full series.
+ *
+ * @author Vismerá Inc.
+ */
+public class AmortizationChartPanel extends JPanel {
+
+    private static final Color INTEREST_COLOR = new Color(139, 92, 246);
+    private static final Color GRID_COLOR = new Color(243, 244, 246);
+    private static final Color TOOLTIP_BACKGROUND = new Color(31, 41, 55, 230);
+    private static final Stroke LINE_STROKE = new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke CROSSHAIR_STROKE = new BasicStroke(1f, BasicStroke.CAP_BUTT,
+        BasicStroke.JOIN_MITER, 10f, new float[] { 4f, 4f }, 0f);
+
+    private static final int LEFT = 90;
+    private static final int RIGHT = 20;
+    private static final int TOP = 35;
+    private static final int BOTTOM = 35;
+    private static final int PLOT_GAP = 45;
+    private static final int Y_TICKS = 4;
+
+    private final double[] months;
+    private final double[] balance;
+    private final double[] cumulativeInterest;
+    private final double[] principal;
+    private final double[] interest;
+    private final double balanceMax;
+    private final double paymentMax;
+
+    private BufferedImage chartLayer;
+    private int hoverIndex = -1;
+
+    public AmortizationChartPanel(List<AmortizationEntry> schedule) {
+        int size = schedule.size();
+        months = new double[size];
+        balance = new double[size];
+        cumulativeInterest = new double[size];
+        principal = new double[size];
+        interest = new double[size];
+        double runningInterest = 0;
+        double maxBalance = 0;
+        double maxPayment = 0;
+        for (int i = 0; i < size; i++) {
+            AmortizationEntry entry = schedule.get(i);
+            runningInterest += entry.getInterest();
+            months[i] = entry.getPaymentNumber();
+            balance[i] = entry.getBalance();
+            cumulativeInterest[i] = runningInterest;
+            principal[i] = entry.getPrincipal();
+            interest[i] = entry.getInterest();
+            maxBalance = Math.max(maxBalance, Math.max(entry.getBalance(), runningInterest));
+            maxPayment = Math.max(maxPayment, Math.max(entry.getPrincipal(), entry.getInterest()));
+        }
+        // The balance before the first payment is the top of the balance line
+        if (size > 0) {
+            maxBalance = Math.max(maxBalance, schedule.get(0).getBalance() + schedule.get(0).getPrincipal());
+        }
+        balanceMax = niceCeiling(maxBalance);
+        paymentMax = niceCeiling(maxPayment);
+
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(800, 450));
+
+        MouseAdapter hoverListener = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverIndex(indexAt(e.getX()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverIndex(-1);
+            }
+        };
+        addMouseListener(hoverListener);
+        addMouseMotionListener(hoverListener);
+    }
+
+    // ==================== PAINTING ====================
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (months.length == 0) {
+            g.setColor(UIStyler.TEXT_SECONDARY);
+            g.setFont(UIStyler.BODY_FONT);
+            g.drawString("No payments to chart", LEFT, TOP + 20);
+            return;
+        }
+        if (chartLayer == null || chartLayer.getWidth() != getWidth() || chartLayer.getHeight() != getHeight()) {
+            chartLayer = renderChartLayer(getWidth(), getHeight());
+        }
+        g.drawImage(chartLayer, 0, 0, null);
+        if (hoverIndex >= 0) {
+            paintHover((Graphics2D) g.create());
+        }
+    }
+
+    /**
+     * Render everything except the hover overlay
+     */
+    private BufferedImage renderChartLayer(int width, int height) {
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+
+            Rectangle top = topPlot(width, height);
+            Rectangle bottom = bottomPlot(width, height);
+            if (top.width <= 0 || top.height <= 0 || bottom.height <= 0) {
+                return image;
+            }
+
+            drawAxes(g, top, balanceMax, "Balance & Cumulative Interest");
+            drawAxes(g, bottom, paymentMax, "Principal vs Interest per Payment");
+
+            // One point per pixel column keeps the shape without overdraw
+            int threshold = Math.max(3, top.width);
+            drawSeries(g, top, months, balance, balanceMax, threshold, UIStyler.PRIMARY_BLUE);
+            drawSeries(g, top, months, cumulativeInterest, balanceMax, threshold, INTEREST_COLOR);
+            drawSeries(g, bottom, months, principal, paymentMax, threshold, UIStyler.PRIMARY_BLUE);
+            drawSeries(g, bottom, months, interest, paymentMax, threshold, INTEREST_COLOR);
+
+            drawLegend(g, width);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private void drawAxes(Graphics2D g, Rectangle plot, double max, String title) {
+        g.setFont(UIStyler.SMALL_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        for (int tick = 0; tick <= Y_TICKS; tick++) {
+            double value = max * tick / Y_TICKS;
+            int y = plot.y + plot.height - (int) Math.round(plot.height * (double) tick / Y_TICKS);
+            g.setColor(GRID_COLOR);
+            g.drawLine(plot.x, y, plot.x + plot.width, y);
+            String label = formatAxisAmount(value);
+            g.setColor(UIStyler.TEXT_SECONDARY);
+            g.drawString(label, plot.x - 8 - metrics.stringWidth(label), y + metrics.getAscent() / 2 - 1);
+        }
+
+        double first = months[0];
+        double last = months[months.length - 1];
+        int xTicks = Math.max(1, Math.min(8, plot.width / 90));
+        for (int tick = 0; tick <= xTicks; tick++) {
+            double month = first + (last - first) * tick / xTicks;
+            int x = xOf(plot, month);
+            String label = String.valueOf(Math.round(month));
+            g.setColor(UIStyler.TEXT_SECONDARY);
+            // Keep the end labels inside the panel
+            int labelX = Math.min(x - metrics.stringWidth(label) / 2, getWidth() - 4 - metrics.stringWidth(label));
+            g.drawString(label, labelX, plot.y + plot.height + metrics.getAscent() + 4);
+        }
+
+        g.setColor(UIStyler.BORDER_COLOR);
+        g.drawRect(plot.x, plot.y, plot.width, plot.height);
+        g.setColor(UIStyler.TEXT_DARK);
+        g.setFont(UIStyler.SUBHEADER_FONT);
+        g.drawString(title, plot.x, plot.y - 8);
+    }
+
+    private void drawSeries(Graphics2D g, Rectangle plot, double[] xs, double[] ys, double max,
+            int threshold, Color color) {
+        int[] points = SeriesDownsampler.lttb(xs, ys, threshold);
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO, points.length);
+        for (int i = 0; i < points.length; i++) {
+            double x = xPosition(plot, xs[points[i]]);
+            double y = yPosition(plot, ys[points[i]], max);
+            if (i == 0) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+        }
+        g.setColor(color);
+        g.setStroke(LINE_STROKE);
+        g.draw(path);
+    }
+
+    private void drawLegend(Graphics2D g, int width) {
+        g.setFont(UIStyler.SMALL_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        String[] labels = { "Balance / Principal", "Cumulative Interest / Interest" };
+        Color[] colors = { UIStyler.PRIMARY_BLUE, INTEREST_COLOR };
+        int x = width - RIGHT;
+        for (int i = labels.length - 1; i >= 0; i--) {
+            x -= metrics.stringWidth(labels[i]);
+            g.setColor(UIStyler.TEXT_DARK);
+            g.drawString(labels[i], x, 14);
+            x -= 16;
+            g.setColor(colors[i]);
+            g.fillRect(x, 14 - 9, 10, 10);
+            x -= 20;
+        }
+    }
+
+    /**
+     * Crosshair and value tooltip for the hovered payment
+     */
+    private void paintHover(Graphics2D g) {
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            Rectangle top = topPlot(getWidth(), getHeight());
+            Rectangle bottom = bottomPlot(getWidth(), getHeight());
+            int x = xOf(top, months[hoverIndex]);
+
+            g.setColor(UIStyler.TEXT_SECONDARY);
+            g.setStroke(CROSSHAIR_STROKE);
+            g.drawLine(x, top.y, x, top.y + top.height);
+            g.drawLine(x, bottom.y, x, bottom.y + bottom.height);
+
+            drawMarker(g, x, yPosition(top, balance[hoverIndex], balanceMax), UIStyler.PRIMARY_BLUE);
+            drawMarker(g, x, yPosition(top, cumulativeInterest[hoverIndex], balanceMax), INTEREST_COLOR);
+            drawMarker(g, x, yPosition(bottom, principal[hoverIndex], paymentMax), UIStyler.PRIMARY_BLUE);
+            drawMarker(g, x, yPosition(bottom, interest[hoverIndex], paymentMax), INTEREST_COLOR);
+
+            String[] lines = {
+                "Payment #" + Math.round(months[hoverIndex]),
+                "Balance: " + FormatUtils.formatCurrency(balance[hoverIndex]),
+                "Total Interest: " + FormatUtils.formatCurrency(cumulativeInterest[hoverIndex]),
+                "Principal: " + FormatUtils.formatCurrency(principal[hoverIndex]),
+                "Interest: " + FormatUtils.formatCurrency(interest[hoverIndex])
+            };
+            g.setFont(UIStyler.SMALL_FONT);
+            FontMetrics metrics = g.getFontMetrics();
+            int boxWidth = 0;
+            for (String line : lines) {
+                boxWidth = Math.max(boxWidth, metrics.stringWidth(line));
+            }
+            boxWidth += 20;
+            int boxHeight = lines.length * metrics.getHeight() + 12;
+            int boxX = x + 12 + boxWidth > top.x + top.width ? x - 12 - boxWidth : x + 12;
+            int boxY = top.y + 8;
+
+            g.setColor(TOOLTIP_BACKGROUND);
+            g.fillRoundRect(boxX, boxY, boxWidth, boxHeight, 8, 8);
+            g.setColor(Color.WHITE);
+            int lineY = boxY + 6 + metrics.getAscent();
+            for (String line : lines) {
+                g.drawString(line, boxX + 10, lineY);
+                lineY += metrics.getHeight();
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void drawMarker(Graphics2D g, int x, double y, Color color) {
+        g.setColor(color);
+        g.fillOval(x - 4, (int) Math.round(y) - 4, 8, 8);
+    }
+
+    // ==================== GEOMETRY ====================
+
+    private void setHoverIndex(int index) {
+        if (index != hoverIndex) {
+            hoverIndex = index;
+            repaint();
+        }
+    }
+
+    /**
+     * Nearest payment to a mouse x position, or -1 outside the plots
+     */
+    private int indexAt(int mouseX) {
+        Rectangle plot = topPlot(getWidth(), getHeight());
+        if (months.length == 0 || mouseX < plot.x || mouseX > plot.x + plot.width) {
+            return -1;
+        }
+        double first = months[0];
+        double last = months[months.length - 1];
+        double month = first + (last - first) * (mouseX - plot.x) / Math.max(1, plot.width);
+        // Payment numbers are consecutive, so the month maps straight to an index
+        int index = (int) Math.round(month - first);
+        return Math.max(0, Math.min(months.length - 1, index));
+    }
+
+    private static Rectangle topPlot(int width, int height) {
+        int plotHeight = (height - TOP - BOTTOM - PLOT_GAP) * 3 / 5;
+        return new Rectangle(LEFT, TOP, width - LEFT - RIGHT, plotHeight);
+    }
+
+    private static Rectangle bottomPlot(int width, int height) {
+        Rectangle top = topPlot(width, height);
+        int y = top.y + top.height + PLOT_GAP;
+        return new Rectangle(LEFT, y, width - LEFT - RIGHT, height - BOTTOM - y);
+    }
+
+    private int xOf(Rectangle plot, double month) {
+        return (int) Math.round(xPosition(plot, month));
+    }
+
+    private double xPosition(Rectangle plot, double month) {
+        double first = months[0];
+        double span = months[months.length - 1] - first;
+        return plot.x + (span == 0 ? 0 : (month - first) / span * plot.width);
+    }
+
+    private static double yPosition(Rectangle plot, double value, double max) {
+        return plot.y + plot.height - (max == 0 ? 0 : value / max * plot.height);
+    }
+
+    /**
+     * Round up to 1, 2 or 5 times a power of ten so axis ticks are round numbers
+     */
+    private static double niceCeiling(double value) {
+        if (value <= 0) {
+            return 1;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(value)));
+        double scaled = value / magnitude;
+        double nice = scaled <= 1 ? 1 : scaled <= 2 ? 2 : scaled <= 5 ? 5 : 10;
+        return nice * magnitude;
+    }
+
+    /**
+     * Short currency label for axis ticks, e.g. ₱1.5M or ₱250K
+     */
+    private static String formatAxisAmount(double value) {
+        if (value >= 1_000_000_000) {
+            return String.format("₱%.1fB", value / 1_000_000_000);
+        }
+        if (value >= 1_000_000) {
+            return String.format("₱%.1fM", value / 1_000_000);
+        }
+        if (value >= 1_000) {
+            return String.format("₱%.0fK", value / 1_000);
+        }
+        return String.format("₱%.0f", value);
+    }
+}
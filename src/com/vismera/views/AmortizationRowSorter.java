@@ -0,0 +1,252 @@
+package com.vismera.views;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+
+/**
+ * Row sorter for the amortization table that sorts and filters on the
+ * primitive cell values of AmortizationTableModel.
+ *
+ * Unlike TableRowSorter it never boxes or compares formatted strings: a sort
+ * copies the sort column into a double[] once and runs a stable merge sort
+ * over row indexes, and filters read cells through getAmount(). Sorting by
+ * one column cycles ascending, descending and unsorted; ties keep schedule
+ * order.
+ *
+ * @author Vismerá Inc.
+ */
+public class AmortizationRowSorter extends RowSorter<AmortizationTableModel> {
+
+    /**
+     * Decides whether a model row is shown
+     */
+    public interface Filter {
+        boolean include(AmortizationTableModel model, int row);
+    }
+
+    private final AmortizationTableModel model;
+    private List<SortKey> sortKeys = Collections.emptyList();
+    private Filter filter;
+    private int[] viewToModel;
+    private int[] modelToView;
+
+    public AmortizationRowSorter(AmortizationTableModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public AmortizationTableModel getModel() {
+        return model;
+    }
+
+    /**
+     * Show only the rows accepted by the filter, or all rows when null
+     */
+    public void setFilter(Filter filter) {
+        this.filter = filter;
+        sort();
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    // ==================== SORT KEYS ====================
+
+    @Override
+    public void toggleSortOrder(int column) {
+        SortOrder order = SortOrder.ASCENDING;
+        if (!sortKeys.isEmpty() && sortKeys.get(0).getColumn() == column) {
+            switch (sortKeys.get(0).getSortOrder()) {
+                case ASCENDING:
+                    order = SortOrder.DESCENDING;
+                    break;
+                case DESCENDING:
+                    order = SortOrder.UNSORTED;
+                    break;
+                default:
+                    order = SortOrder.ASCENDING;
+            }
+        }
+        setSortKeys(order == SortOrder.UNSORTED
+            ? null
+            : Collections.singletonList(new SortKey(column, order)));
+    }
+
+    /**
+     * Sort by the first key only; further keys are ignored
+     */
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> next = keys == null || keys.isEmpty()
+            ? Collections.emptyList()
+            : Collections.singletonList(keys.get(0));
+        if (!next.equals(sortKeys)) {
+            sortKeys = next;
+            fireSortOrderChanged();
+            sort();
+        }
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    // ==================== INDEX MAPPING ====================
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (viewToModel == null) {
+            if (index < 0 || index >= model.getRowCount()) {
+                throw new IndexOutOfBoundsException("Invalid index");
+            }
+            return index;
+        }
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (modelToView == null) {
+            if (index < 0 || index >= model.getRowCount()) {
+                throw new IndexOutOfBoundsException("Invalid index");
+            }
+            return index;
+        }
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel == null ? model.getRowCount() : viewToModel.length;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    // ==================== MODEL EVENTS ====================
+
+    @Override
+    public void modelStructureChanged() {
+        sortKeys = Collections.emptyList();
+        sort();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        sort();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        sort();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        sort();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        sort();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        sort();
+    }
+
+    // ==================== SORTING ====================
+
+    /**
+     * Rebuild the row mapping from the current filter and sort key
+     */
+    private void sort() {
+        int[] previous = viewToModel != null ? viewToModel : identity(model.getRowCount());
+        int rowCount = model.getRowCount();
+        boolean sorted = !sortKeys.isEmpty();
+
+        if (filter == null && !sorted) {
+            viewToModel = null;
+            modelToView = null;
+            fireRowSorterChanged(previous);
+            return;
+        }
+
+        int[] rows = new int[rowCount];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (filter == null || filter.include(model, row)) {
+                rows[count++] = row;
+            }
+        }
+        if (count < rowCount) {
+            int[] trimmed = new int[count];
+            System.arraycopy(rows, 0, trimmed, 0, count);
+            rows = trimmed;
+        }
+
+        if (sorted) {
+            SortKey key = sortKeys.get(0);
+            double[] values = new double[rowCount];
+            for (int row : rows) {
+                values[row] = model.getAmount(row, key.getColumn());
+            }
+            mergeSort(rows, new int[rows.length], 0, rows.length, values,
+                key.getSortOrder() == SortOrder.DESCENDING);
+        }
+
+        modelToView = new int[rowCount];
+        Arrays.fill(modelToView, -1);
+        for (int view = 0; view < rows.length; view++) {
+            modelToView[rows[view]] = view;
+        }
+        viewToModel = rows;
+        fireRowSorterChanged(previous);
+    }
+
+    /**
+     * Stable merge sort of row indexes by their values
+     */
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, double[] values, boolean descending) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, middle, values, descending);
+        mergeSort(rows, buffer, middle, to, values, descending);
+        if (compare(values, rows[middle - 1], rows[middle], descending) <= 0) {
+            return; // Already in order
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(values, buffer[left], buffer[right], descending) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static int compare(double[] values, int a, int b, boolean descending) {
+        int result = Double.compare(values[a], values[b]);
+        return descending ? -result : result;
+    }
+
+    private static int[] identity(int rowCount) {
+        int[] rows = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            rows[row] = row;
+        }
+        return rows;
+    }
+}
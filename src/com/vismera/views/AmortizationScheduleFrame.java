@@ -9,6 +9,7 @@ import com.vismera.utils.UIStyler;
 import java.awt.*;
 import java.util.List;
 import javax.swing.*;
+import javax.swing.border.Border;
 import javax.swing.table.*;
 
 /**
@@ -17,10 +18,22 @@ import javax.swing.table.*;
  */
 public class AmortizationScheduleFrame extends JFrame {
     
+    private static final Color SELECTION_BACKGROUND = new Color(219, 234, 254); // Light blue
+    private static final Color STRIPE_BACKGROUND = new Color(249, 250, 251);
+    private static final Color INTEREST_COLOR = new Color(139, 92, 246);        // Purple
+    private static final Border CELL_BORDER = BorderFactory.createEmptyBorder(0, 10, 0, 10);
+    private static final Border HEADER_BORDER = BorderFactory.createMatteBorder(0, 0, 1, 1, UIStyler.BORDER_COLOR);
+    
     private List<AmortizationEntry> schedule;
     private LoanCalculation loan;
     private JTable amortizationTable;
-    private DefaultTableModel tableModel;
+    private AmortizationTableModel tableModel;
+    private AmortizationRowSorter rowSorter;
+    private JComboBox<String> showCombo;
+    private JComboBox<String> rangeColumnCombo;
+    private JTextField minField;
+    private JTextField maxField;
+    private JLabel rowCountLabel;
     private LoanSummaryDialog parentDialog;
     
     public AmortizationScheduleFrame(List<AmortizationEntry> schedule, LoanCalculation loan, LoanSummaryDialog parentDialog) {
@@ -32,7 +45,7 @@ public class AmortizationScheduleFrame extends JFrame {
     }
     
     private void initComponents() {
-        setSize(950, 600);
+        setSize(1050, 600);
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         
@@ -69,7 +82,20 @@ public class AmortizationScheduleFrame extends JFrame {
         scrollPane.setBorder(BorderFactory.createLineBorder(UIStyler.BORDER_COLOR, 1));
         scrollPane.getViewport().setBackground(Color.WHITE);
         
-        mainPanel.add(scrollPane, BorderLayout.CENTER);
+        JPanel tablePanel = new JPanel(new BorderLayout(0, 10));
+        tablePanel.setBackground(UIStyler.BACKGROUND_LIGHT);
+        tablePanel.add(createFilterPanel(), BorderLayout.NORTH);
+        tablePanel.add(scrollPane, BorderLayout.CENTER);
+        
+        AmortizationChartPanel chartPanel = new AmortizationChartPanel(schedule);
+        chartPanel.setBorder(BorderFactory.createLineBorder(UIStyler.BORDER_COLOR, 1));
+
+        JTabbedPane viewTabs = new JTabbedPane();
+        viewTabs.setFont(UIStyler.BODY_FONT);
+        viewTabs.addTab("Table", tablePanel);
+        viewTabs.addTab("Chart", chartPanel);
+
+        mainPanel.add(viewTabs, BorderLayout.CENTER);
         
         // Buttons panel
         JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
@@ -112,37 +138,18 @@ public class AmortizationScheduleFrame extends JFrame {
     }
     
     private void createTable() {
-        String[] columns = {
-            "Payment #", "Payment", "Principal", "Interest", "Penalty", "Balance", "Total Paid"
-        };
-        
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        
-        // Populate table
-        for (AmortizationEntry entry : schedule) {
-            Object[] row = {
-                entry.getPaymentNumber(),
-                FormatUtils.formatCurrency(entry.getPayment()),
-                FormatUtils.formatCurrency(entry.getPrincipal()),
-                FormatUtils.formatCurrency(entry.getInterest()),
-                FormatUtils.formatCurrency(entry.getPenalty()),
-                FormatUtils.formatCurrency(entry.getBalance()),
-                FormatUtils.formatCurrency(entry.getTotalPaid())
-            };
-            tableModel.addRow(row);
-        }
+        tableModel = new AmortizationTableModel(schedule);
         
         amortizationTable = new JTable(tableModel);
+        
+        // Sorts and filters on the numeric cell values, not the formatted text
+        rowSorter = new AmortizationRowSorter(tableModel);
+        amortizationTable.setRowSorter(rowSorter);
         amortizationTable.setFont(UIStyler.BODY_FONT);
         amortizationTable.setRowHeight(35);
         amortizationTable.setShowGrid(true);
         amortizationTable.setGridColor(UIStyler.BORDER_COLOR);
-        amortizationTable.setSelectionBackground(new Color(219, 234, 254)); // Light blue
+        amortizationTable.setSelectionBackground(SELECTION_BACKGROUND);
         amortizationTable.setSelectionForeground(UIStyler.TEXT_DARK);
         
         // Header styling
@@ -153,60 +160,21 @@ public class AmortizationScheduleFrame extends JFrame {
         header.setPreferredSize(new Dimension(header.getWidth(), 45));
         
         // Make header text visible with custom renderer
-        ((DefaultTableCellRenderer) header.getDefaultRenderer()).setHorizontalAlignment(SwingConstants.CENTER);
-        header.setDefaultRenderer(new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value,
-                    boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                setBackground(new Color(229, 231, 235)); // Light gray background
-                setForeground(Color.BLACK);
-                setFont(UIStyler.SUBHEADER_FONT);
-                setHorizontalAlignment(SwingConstants.CENTER);
-                setBorder(BorderFactory.createMatteBorder(0, 0, 1, 1, UIStyler.BORDER_COLOR));
-                return c;
-            }
+        DefaultTableCellRenderer headerRenderer = new DefaultTableCellRenderer();
+        headerRenderer.setBackground(UIStyler.BORDER_COLOR); // Light gray background
+        headerRenderer.setForeground(Color.BLACK);
+        headerRenderer.setFont(UIStyler.SUBHEADER_FONT);
+        headerRenderer.setHorizontalAlignment(SwingConstants.CENTER);
+        headerRenderer.setBorder(HEADER_BORDER);
+        header.setDefaultRenderer((table, value, isSelected, hasFocus, row, column) -> {
+            headerRenderer.setText(value != null ? value.toString() : "");
+            return headerRenderer;
         });
         
-        // Column alignment and coloring
-        DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
-        centerRenderer.setHorizontalAlignment(SwingConstants.CENTER);
-        
-        // Custom renderer for color-coding
-        amortizationTable.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value,
-                    boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, 
-                    isSelected, hasFocus, row, column);
-                
-                setHorizontalAlignment(column == 0 ? SwingConstants.CENTER : SwingConstants.RIGHT);
-                
-                if (!isSelected) {
-                    setBackground(row % 2 == 0 ? Color.WHITE : new Color(249, 250, 251));
-                    
-                    switch (column) {
-                        case 2: // Principal - Blue
-                            setForeground(UIStyler.PRIMARY_BLUE);
-                            break;
-                        case 3: // Interest - Purple
-                            setForeground(new Color(139, 92, 246));
-                            break;
-                        case 4: // Penalty - Red
-                            setForeground(UIStyler.ERROR_RED);
-                            break;
-                        case 6: // Total Paid - Green
-                            setForeground(UIStyler.ACCENT_GREEN);
-                            break;
-                        default:
-                            setForeground(UIStyler.TEXT_DARK);
-                    }
-                }
-                
-                setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
-                return c;
-            }
-        });
+        // Values are formatted only when painted; both column types share one renderer
+        AmountRenderer amountRenderer = new AmountRenderer();
+        amortizationTable.setDefaultRenderer(Integer.class, amountRenderer);
+        amortizationTable.setDefaultRenderer(Double.class, amountRenderer);
         
         // Set column widths
         TableColumnModel columnModel = amortizationTable.getColumnModel();
@@ -219,6 +187,175 @@ public class AmortizationScheduleFrame extends JFrame {
         columnModel.getColumn(6).setPreferredWidth(130); // Total Paid
     }
     
+    // ==================== FILTERING ====================
+    
+    private JPanel createFilterPanel() {
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        filterPanel.setBackground(UIStyler.BACKGROUND_LIGHT);
+        
+        showCombo = new JComboBox<>(new String[] {
+            "All payments", "Payments with penalty", "Interest > principal", "Principal ≥ interest"
+        });
+        showCombo.setFont(UIStyler.BODY_FONT);
+        showCombo.addActionListener(e -> applyFilter());
+        
+        String[] columns = new String[tableModel.getColumnCount()];
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = tableModel.getColumnName(column);
+        }
+        rangeColumnCombo = new JComboBox<>(columns);
+        rangeColumnCombo.setFont(UIStyler.BODY_FONT);
+        rangeColumnCombo.setSelectedIndex(AmortizationTableModel.PAYMENT);
+        rangeColumnCombo.addActionListener(e -> applyFilter());
+        
+        minField = new JTextField(8);
+        maxField = new JTextField(8);
+        minField.setFont(UIStyler.BODY_FONT);
+        maxField.setFont(UIStyler.BODY_FONT);
+        minField.addActionListener(e -> applyFilter());
+        maxField.addActionListener(e -> applyFilter());
+        
+        JButton applyButton = new JButton("Apply");
+        UIStyler.styleSecondaryButton(applyButton);
+        applyButton.addActionListener(e -> applyFilter());
+        
+        JButton clearButton = new JButton("Clear");
+        UIStyler.styleSecondaryButton(clearButton);
+        clearButton.addActionListener(e -> {
+            minField.setText("");
+            maxField.setText("");
+            showCombo.setSelectedIndex(0);
+            applyFilter();
+        });
+        
+        rowCountLabel = new JLabel();
+        rowCountLabel.setFont(UIStyler.SMALL_FONT);
+        rowCountLabel.setForeground(UIStyler.TEXT_SECONDARY);
+        
+        filterPanel.add(createFilterLabel("Show:"));
+        filterPanel.add(showCombo);
+        filterPanel.add(createFilterLabel("  Range:"));
+        filterPanel.add(rangeColumnCombo);
+        filterPanel.add(createFilterLabel("from"));
+        filterPanel.add(minField);
+        filterPanel.add(createFilterLabel("to"));
+        filterPanel.add(maxField);
+        filterPanel.add(applyButton);
+        filterPanel.add(clearButton);
+        filterPanel.add(rowCountLabel);
+        
+        updateRowCount();
+        return filterPanel;
+    }
+    
+    private JLabel createFilterLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setFont(UIStyler.BODY_FONT);
+        label.setForeground(UIStyler.TEXT_DARK);
+        return label;
+    }
+    
+    /**
+     * Combine the preset and the value range into one filter on the numeric columns.
+     * Blank range bounds are open.
+     */
+    private void applyFilter() {
+        int preset = showCombo.getSelectedIndex();
+        int rangeColumn = rangeColumnCombo.getSelectedIndex();
+        double min = FormatUtils.parseDouble(minField.getText(), Double.NEGATIVE_INFINITY);
+        double max = FormatUtils.parseDouble(maxField.getText(), Double.POSITIVE_INFINITY);
+        boolean ranged = min != Double.NEGATIVE_INFINITY || max != Double.POSITIVE_INFINITY;
+        
+        if (preset == 0 && !ranged) {
+            rowSorter.setFilter(null);
+        } else {
+            rowSorter.setFilter((model, row) -> {
+                switch (preset) {
+                    case 1:
+                        if (!(model.getAmount(row, AmortizationTableModel.PENALTY) > 0)) {
+                            return false;
+                        }
+                        break;
+                    case 2:
+                        if (!(model.getAmount(row, AmortizationTableModel.INTEREST)
+                                > model.getAmount(row, AmortizationTableModel.PRINCIPAL))) {
+                            return false;
+                        }
+                        break;
+                    case 3:
+                        if (!(model.getAmount(row, AmortizationTableModel.PRINCIPAL)
+                                >= model.getAmount(row, AmortizationTableModel.INTEREST))) {
+                            return false;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                if (!ranged) {
+                    return true;
+                }
+                double value = model.getAmount(row, rangeColumn);
+                return value >= min && value <= max;
+            });
+        }
+        updateRowCount();
+    }
+    
+    private void updateRowCount() {
+        rowCountLabel.setText(String.format("%s of %s payments",
+            FormatUtils.formatNumber(rowSorter.getViewRowCount()),
+            FormatUtils.formatNumber(tableModel.getRowCount())));
+    }
+    
+    /**
+     * Cell renderer that reads the primitive value from the model and formats
+     * it on paint. Colors and borders are shared constants, so rendering a
+     * cell allocates nothing but its text.
+     */
+    private static class AmountRenderer extends DefaultTableCellRenderer {
+        
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value,
+                boolean isSelected, boolean hasFocus, int row, int column) {
+            AmortizationTableModel model = (AmortizationTableModel) table.getModel();
+            int modelRow = table.convertRowIndexToModel(row);
+            int modelColumn = table.convertColumnIndexToModel(column);
+            
+            super.getTableCellRendererComponent(table, null, isSelected, hasFocus, row, column);
+            if (modelColumn == AmortizationTableModel.PAYMENT_NUMBER) {
+                setText(Integer.toString(model.getEntry(modelRow).getPaymentNumber()));
+                setHorizontalAlignment(SwingConstants.CENTER);
+            } else {
+                setText(FormatUtils.formatCurrency(model.getAmount(modelRow, modelColumn)));
+                setHorizontalAlignment(SwingConstants.RIGHT);
+            }
+            
+            if (!isSelected) {
+                setBackground(row % 2 == 0 ? Color.WHITE : STRIPE_BACKGROUND);
+                
+                switch (modelColumn) {
+                    case AmortizationTableModel.PRINCIPAL: // Blue
+                        setForeground(UIStyler.PRIMARY_BLUE);
+                        break;
+                    case AmortizationTableModel.INTEREST: // Purple
+                        setForeground(INTEREST_COLOR);
+                        break;
+                    case AmortizationTableModel.PENALTY: // Red
+                        setForeground(UIStyler.ERROR_RED);
+                        break;
+                    case AmortizationTableModel.TOTAL_PAID: // Green
+                        setForeground(UIStyler.ACCENT_GREEN);
+                        break;
+                    default:
+                        setForeground(UIStyler.TEXT_DARK);
+                }
+            }
+            
+            setBorder(CELL_BORDER);
+            return this;
+        }
+    }
+    
     private void exportToCSV() {
         CSVExporter.exportWithFileChooser(schedule, this);
     }
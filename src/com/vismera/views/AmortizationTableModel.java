@@ -0,0 +1,97 @@
+package com.vismera.views;
+
+import com.vismera.models.AmortizationEntry;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Read-only table model over an amortization schedule.
+ *
+ * Cells are read straight from the schedule entries; nothing is copied or
+ * formatted up front. Renderers can use getAmount() to read a cell as a
+ * primitive without boxing and format it only when it is painted.
+ *
+ * @author Vismerá Inc.
+ */
+public class AmortizationTableModel extends AbstractTableModel {
+
+    public static final int PAYMENT_NUMBER = 0;
+    public static final int PAYMENT = 1;
+    public static final int PRINCIPAL = 2;
+    public static final int INTEREST = 3;
+    public static final int PENALTY = 4;
+    public static final int BALANCE = 5;
+    public static final int TOTAL_PAID = 6;
+
+    private static final String[] COLUMNS = {
+        "Payment #", "Payment", "Principal", "Interest", "Penalty", "Balance", "Total Paid"
+    };
+
+    private final List<AmortizationEntry> schedule;
+
+    public AmortizationTableModel(List<AmortizationEntry> schedule) {
+        this.schedule = schedule;
+    }
+
+    @Override
+    public int getRowCount() {
+        return schedule.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == PAYMENT_NUMBER ? Integer.class : Double.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == PAYMENT_NUMBER) {
+            return schedule.get(row).getPaymentNumber();
+        }
+        return getAmount(row, column);
+    }
+
+    /**
+     * Read a cell as a primitive; the payment number column is widened to double
+     */
+    public double getAmount(int row, int column) {
+        AmortizationEntry entry = schedule.get(row);
+        switch (column) {
+            case PAYMENT_NUMBER:
+                return entry.getPaymentNumber();
+            case PAYMENT:
+                return entry.getPayment();
+            case PRINCIPAL:
+                return entry.getPrincipal();
+            case INTEREST:
+                return entry.getInterest();
+            case PENALTY:
+                return entry.getPenalty();
+            case BALANCE:
+                return entry.getBalance();
+            case TOTAL_PAID:
+                return entry.getTotalPaid();
+            default:
+                throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+
+    public AmortizationEntry getEntry(int row) {
+        return schedule.get(row);
+    }
+}
@@ -3,11 +3,15 @@ package com.vismera.views;
 import com.vismera.controllers.LoanController;
 import com.vismera.models.Car;
 import com.vismera.models.LoanCalculation;
+import com.vismera.models.LoanSummary;
 import com.vismera.utils.FormatUtils;
 import com.vismera.utils.UIStyler;
 import com.vismera.utils.ValidationUtils;
 import java.awt.*;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
  * Calculate Panel - Page 2: Loan Calculator
@@ -15,6 +19,9 @@ import javax.swing.*;
  */
 public class CalculatePanel extends JPanel {
     
+    private static final int PROGRESS_DELAY_MILLIS = 200;
+    private static final int PREVIEW_FRAME_MILLIS = 16;
+    
     private MainFrame parentFrame;
     private Car selectedCar;
     
@@ -36,6 +43,16 @@ public class CalculatePanel extends JPanel {
     private JLabel amountFinancedLabel;
     private JLabel downPlusTradeLabel;
     private JLabel taxAmountLabel;
+    private JLabel monthlyPaymentLabel;
+    private JLabel totalInterestLabel;
+    private JLabel payoffLabel;
+    private Timer previewTimer;
+    
+    // Background calculation
+    private JButton calculateButton;
+    private JProgressBar progressBar;
+    private Timer progressDelayTimer;
+    private CalculationWorker calculationWorker;
     
     // Selected car panel
     private JPanel selectedCarPanel;
@@ -246,6 +263,13 @@ public class CalculatePanel extends JPanel {
         amountFinancedLabel.setForeground(UIStyler.PRIMARY_BLUE);
         amountFinancedLabel.setFont(UIStyler.HEADER_FONT);
         
+        // Live quote preview
+        monthlyPaymentLabel = createSummaryRow(panel, "Monthly Payment:", "—");
+        monthlyPaymentLabel.setForeground(UIStyler.PRIMARY_BLUE);
+        monthlyPaymentLabel.setFont(UIStyler.SUBHEADER_FONT);
+        totalInterestLabel = createSummaryRow(panel, "Total Interest:", "—");
+        payoffLabel = createSummaryRow(panel, "Paid Off In:", "—");
+        
         return panel;
     }
     
@@ -253,7 +277,7 @@ public class CalculatePanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(UIStyler.BACKGROUND_LIGHT);
         
-        JButton calculateButton = new JButton("Calculate Loan");
+        calculateButton = new JButton("Calculate Loan");
         UIStyler.stylePrimaryButton(calculateButton);
         calculateButton.setPreferredSize(new Dimension(200, 50));
         calculateButton.setFont(new Font("Segoe UI", Font.BOLD, 16));
@@ -270,6 +294,17 @@ public class CalculatePanel extends JPanel {
         
         panel.add(buttonPanel, BorderLayout.CENTER);
         
+        // Only shown when a calculation runs long enough to notice
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setFont(UIStyler.SMALL_FONT);
+        progressBar.setForeground(UIStyler.PRIMARY_BLUE);
+        progressBar.setVisible(false);
+        panel.add(progressBar, BorderLayout.SOUTH);
+        
+        progressDelayTimer = new Timer(PROGRESS_DELAY_MILLIS, e -> progressBar.setVisible(true));
+        progressDelayTimer.setRepeats(false);
+        
         return panel;
     }
     
@@ -317,44 +352,96 @@ public class CalculatePanel extends JPanel {
         return valueLabel;
     }
     
+    /**
+     * Refresh the summary whenever an input changes. Bursts of edits are
+     * coalesced into at most one evaluation per frame.
+     */
     private void addFieldListeners() {
-        java.awt.event.KeyAdapter updateListener = new java.awt.event.KeyAdapter() {
+        previewTimer = new Timer(PREVIEW_FRAME_MILLIS, e -> updateSummary());
+        previewTimer.setRepeats(false);
+        
+        DocumentListener updateListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                scheduleSummaryUpdate();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                scheduleSummaryUpdate();
+            }
+            
             @Override
-            public void keyReleased(java.awt.event.KeyEvent e) {
-                updateSummary();
+            public void changedUpdate(DocumentEvent e) {
+                scheduleSummaryUpdate();
             }
         };
         
-        carPriceField.addKeyListener(updateListener);
-        salesTaxField.addKeyListener(updateListener);
-        registrationFeeField.addKeyListener(updateListener);
-        downPaymentField.addKeyListener(updateListener);
-        tradeInValueField.addKeyListener(updateListener);
+        JTextField[] fields = {
+            carPriceField, salesTaxField, registrationFeeField, downPaymentField, tradeInValueField,
+            annualInterestRateField, loanTermYearsField, penaltyRateField, missedPaymentsField, extraPaymentField
+        };
+        for (JTextField field : fields) {
+            field.getDocument().addDocumentListener(updateListener);
+        }
+        compoundingFrequencyCombo.addActionListener(e -> scheduleSummaryUpdate());
+    }
+    
+    private void scheduleSummaryUpdate() {
+        if (!previewTimer.isRunning()) {
+            previewTimer.start();
+        }
     }
     
+    /**
+     * Recompute the cost breakdown and the quote preview. The preview uses
+     * the closed-form summary, so no schedule is built or simulated while
+     * typing and any term costs the same on the EDT.
+     */
     private void updateSummary() {
-        try {
-            double carPrice = FormatUtils.parseDouble(carPriceField.getText());
-            double taxRate = FormatUtils.parseDouble(salesTaxField.getText());
-            double regFee = FormatUtils.parseDouble(registrationFeeField.getText());
-            double downPayment = FormatUtils.parseDouble(downPaymentField.getText());
-            double tradeIn = FormatUtils.parseDouble(tradeInValueField.getText());
-            
-            double taxAmount = carPrice * (taxRate / 100.0);
-            double totalCost = carPrice + taxAmount + regFee;
-            double downPlusTrade = downPayment + tradeIn;
-            double amountFinanced = Math.max(0, totalCost - downPlusTrade);
-            
-            totalCostLabel.setText(FormatUtils.formatCurrency(totalCost));
-            taxAmountLabel.setText(FormatUtils.formatCurrency(taxAmount));
-            downPlusTradeLabel.setText(FormatUtils.formatCurrency(downPlusTrade));
-            amountFinancedLabel.setText(FormatUtils.formatCurrency(amountFinanced));
-        } catch (Exception e) {
-            // Ignore parsing errors during typing
+        LoanCalculation loan = LoanController.getInstance().newLoanCalculation(
+            FormatUtils.parseDouble(carPriceField.getText()),
+            FormatUtils.parseDouble(salesTaxField.getText()),
+            FormatUtils.parseDouble(registrationFeeField.getText()),
+            FormatUtils.parseDouble(downPaymentField.getText()),
+            FormatUtils.parseDouble(tradeInValueField.getText()),
+            FormatUtils.parseDouble(annualInterestRateField.getText()),
+            FormatUtils.parseInt(loanTermYearsField.getText()),
+            (String) compoundingFrequencyCombo.getSelectedItem(),
+            FormatUtils.parseDouble(penaltyRateField.getText()),
+            FormatUtils.parseInt(missedPaymentsField.getText()),
+            FormatUtils.parseDouble(extraPaymentField.getText())
+        );
+        
+        totalCostLabel.setText(FormatUtils.formatCurrency(loan.calculateTotalCost()));
+        taxAmountLabel.setText(FormatUtils.formatCurrency(loan.calculateTaxAmount()));
+        downPlusTradeLabel.setText(FormatUtils.formatCurrency(loan.getDownPayment() + loan.getTradeInValue()));
+        amountFinancedLabel.setText(FormatUtils.formatCurrency(loan.calculateAmountFinanced()));
+        
+        LoanSummary summary = loan.getLoanTermYears() > 0 ? loan.calculateSummary() : null;
+        if (summary == null || summary.getPayoffMonth() == 0
+                || !Double.isFinite(summary.getMonthlyPayment()) || !Double.isFinite(summary.getTotalInterest())) {
+            monthlyPaymentLabel.setText("—");
+            totalInterestLabel.setText("—");
+            payoffLabel.setText("—");
+            return;
         }
+        monthlyPaymentLabel.setText(FormatUtils.formatCurrency(summary.getMonthlyPayment()));
+        totalInterestLabel.setText(FormatUtils.formatCurrency(summary.getTotalInterest()));
+        payoffLabel.setText(FormatUtils.formatMonths(summary.getPayoffMonth())
+            + " (month " + summary.getPayoffMonth() + ")");
     }
     
+    /**
+     * Validate the inputs and calculate the loan on a background thread.
+     * While a calculation runs, the button cancels it instead.
+     */
     private void calculateLoan() {
+        if (calculationWorker != null) {
+            calculationWorker.cancel(true);
+            return;
+        }
+        
         // Validate inputs
         String errors = ValidationUtils.validateLoanInputs(
             carPriceField.getText(),
@@ -372,34 +459,78 @@ public class CalculatePanel extends JPanel {
             return;
         }
         
-        try {
-            // Create loan calculation
-            LoanCalculation loan = LoanController.getInstance().createLoanCalculation(
-                FormatUtils.parseDouble(carPriceField.getText()),
-                FormatUtils.parseDouble(salesTaxField.getText()),
-                FormatUtils.parseDouble(registrationFeeField.getText()),
-                FormatUtils.parseDouble(downPaymentField.getText()),
-                FormatUtils.parseDouble(tradeInValueField.getText()),
-                FormatUtils.parseDouble(annualInterestRateField.getText()),
-                FormatUtils.parseInt(loanTermYearsField.getText()),
-                (String) compoundingFrequencyCombo.getSelectedItem(),
-                FormatUtils.parseDouble(penaltyRateField.getText()),
-                FormatUtils.parseInt(missedPaymentsField.getText()),
-                FormatUtils.parseDouble(extraPaymentField.getText())
-            );
-            
-            // Show summary dialog
-            LoanSummaryDialog dialog = new LoanSummaryDialog(
-                (Frame) SwingUtilities.getWindowAncestor(this), 
-                loan
-            );
-            dialog.setVisible(true);
-            
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this,
-                "Error calculating loan: " + e.getMessage(),
-                "Calculation Error",
-                JOptionPane.ERROR_MESSAGE);
+        // Read the inputs on the EDT; the worker only sees this snapshot
+        LoanCalculation loan = LoanController.getInstance().newLoanCalculation(
+            FormatUtils.parseDouble(carPriceField.getText()),
+            FormatUtils.parseDouble(salesTaxField.getText()),
+            FormatUtils.parseDouble(registrationFeeField.getText()),
+            FormatUtils.parseDouble(downPaymentField.getText()),
+            FormatUtils.parseDouble(tradeInValueField.getText()),
+            FormatUtils.parseDouble(annualInterestRateField.getText()),
+            FormatUtils.parseInt(loanTermYearsField.getText()),
+            (String) compoundingFrequencyCombo.getSelectedItem(),
+            FormatUtils.parseDouble(penaltyRateField.getText()),
+            FormatUtils.parseInt(missedPaymentsField.getText()),
+            FormatUtils.parseDouble(extraPaymentField.getText())
+        );
+        
+        calculationWorker = new CalculationWorker(loan);
+        calculationWorker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+        calculateButton.setText("Cancel");
+        progressBar.setValue(0);
+        progressDelayTimer.restart();
+        calculationWorker.execute();
+    }
+    
+    private void finishCalculation() {
+        calculationWorker = null;
+        progressDelayTimer.stop();
+        progressBar.setVisible(false);
+        calculateButton.setText("Calculate Loan");
+    }
+    
+    /**
+     * Runs the loan calculation off the EDT and opens the summary dialog
+     * with the result
+     */
+    private class CalculationWorker extends SwingWorker<LoanCalculation, Void> {
+        
+        private final LoanCalculation loan;
+        
+        CalculationWorker(LoanCalculation loan) {
+            this.loan = loan;
+        }
+        
+        @Override
+        protected LoanCalculation doInBackground() {
+            return LoanController.getInstance().calculateLoan(loan, this::setProgress);
+        }
+        
+        @Override
+        protected void done() {
+            finishCalculation();
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                // Show summary dialog
+                LoanSummaryDialog dialog = new LoanSummaryDialog(
+                    (Frame) SwingUtilities.getWindowAncestor(CalculatePanel.this), 
+                    get()
+                );
+                dialog.setVisible(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                JOptionPane.showMessageDialog(CalculatePanel.this,
+                    "Error calculating loan: " + e.getCause().getMessage(),
+                    "Calculation Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
         }
     }
     
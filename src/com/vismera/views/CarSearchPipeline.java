@@ -0,0 +1,116 @@
+package com.vismera.views;
+
+import com.vismera.controllers.CarController;
+import com.vismera.models.Car;
+import com.vismera.utils.CarFacets;
+import com.vismera.utils.CarSearchResult;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Runs car searches off the event dispatch thread.
+ *
+ * Keystrokes restart a short debounce timer; when it fires the query runs on
+ * a background thread and any older query still running is cancelled. Each
+ * query carries a generation number, and only the result of the newest one
+ * is handed back on the EDT, so a slow search can never overwrite a newer one.
+ *
+ * @author Vismerá Inc.
+ */
+class CarSearchPipeline {
+
+    /**
+     * Receives the latest search result on the EDT
+     */
+    interface ResultHandler {
+        void apply(CarFacets facets, List<Car> cars);
+    }
+
+    private static final int DEBOUNCE_MILLIS = 150;
+
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "car-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ResultHandler handler;
+    private final Timer debounceTimer;
+    private String pendingQuery = "";
+    private String pendingCategory = "All";
+    private String lastQuery;
+    private String lastCategory;
+    private volatile long generation;
+    private Future<?> running;
+
+    CarSearchPipeline(ResultHandler handler) {
+        this.handler = handler;
+        this.debounceTimer = new Timer(DEBOUNCE_MILLIS, e -> start(pendingQuery, pendingCategory));
+        this.debounceTimer.setRepeats(false);
+    }
+
+    /**
+     * Search after the user pauses typing. Repeating the last search is a no-op.
+     */
+    void submit(String query, String category) {
+        pendingQuery = query;
+        pendingCategory = category;
+        if (query.equals(lastQuery) && category.equals(lastCategory)) {
+            debounceTimer.stop();
+            return;
+        }
+        debounceTimer.restart();
+    }
+
+    /**
+     * Search right away, even if the query has not changed (e.g. after a
+     * catalog change or a category pick)
+     */
+    void submitNow(String query, String category) {
+        debounceTimer.stop();
+        start(query, category);
+    }
+
+    private void start(String query, String category) {
+        // Not interrupting: an interrupt inside H2 file I/O closes the database.
+        // A running search stops at its next generation check instead.
+        if (running != null) {
+            running.cancel(false);
+        }
+        // Only the EDT writes the generation; the search thread reads it
+        long current = ++generation;
+        lastQuery = query;
+        lastCategory = category;
+        running = SEARCH_EXECUTOR.submit(() -> {
+            try {
+                CarSearchResult result = CarController.getInstance().searchWithFacets(query, category);
+                checkCurrent(current);
+                SwingUtilities.invokeLater(() -> {
+                    // A newer search may have started after this one finished
+                    if (current == generation) {
+                        running = null;
+                        handler.apply(result.getFacets(), result.getCars());
+                    }
+                });
+            } catch (CancellationException e) {
+                // Superseded by a newer search
+            } catch (RuntimeException e) {
+                System.err.println("Error searching cars: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Stop early when a newer search has been started
+     */
+    private void checkCurrent(long current) {
+        if (current != generation) {
+            throw new CancellationException();
+        }
+    }
+}
@@ -2,16 +2,20 @@ package com.vismera.views;
 
 import com.vismera.models.Car;
 import com.vismera.controllers.CarController;
-import com.vismera.utils.FormatUtils;
+import com.vismera.utils.CarCatalogChange;
+import com.vismera.utils.CarFacets;
+import com.vismera.utils.StartupTrace;
+import com.vismera.utils.ThumbnailCache;
 import com.vismera.utils.UIStyler;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.image.BufferedImage;
-import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import javax.imageio.ImageIO;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
-import javax.swing.border.*;
 
 /**
  * Cars Panel - Page 1: Car Selection
@@ -19,8 +23,16 @@ import javax.swing.border.*;
  */
 public class CarsPanel extends JPanel {
     
+    /** Larger change sets rerun the search rather than looking cars up one by one */
+    private static final int MAX_IN_PLACE_CHANGES = 64;
+    
+    private final ThumbnailCache thumbnails = ThumbnailCache.getInstance();
     private JTextField searchField;
-    private JPanel carsGridPanel;
+    private JComboBox<String> categoryCombo;
+    private final List<String> categoryValues = new ArrayList<>();
+    private boolean updatingCategories;
+    private VirtualCarGrid carsGrid;
+    private final CarSearchPipeline searchPipeline = new CarSearchPipeline(this::showSearchResult);
     private JPanel selectedCarBanner;
     private JLabel selectedCarLabel;
     private JButton continueButton;
@@ -30,7 +42,7 @@ public class CarsPanel extends JPanel {
     public CarsPanel(MainFrame parentFrame) {
         this.parentFrame = parentFrame;
         initComponents();
-        loadCars();
+        new CatalogLoader().execute();
     }
     
     private void initComponents() {
@@ -76,7 +88,7 @@ public class CarsPanel extends JPanel {
         searchField.addKeyListener(new KeyAdapter() {
             @Override
             public void keyReleased(KeyEvent e) {
-                filterCars();
+                searchPipeline.submit(getSearchQuery(), getSelectedCategory());
             }
         });
         
@@ -89,6 +101,27 @@ public class CarsPanel extends JPanel {
         
         topPanel.add(searchPanel, BorderLayout.CENTER);
         
+        // Category filter with live counts for the current search
+        categoryCombo = new JComboBox<>();
+        categoryCombo.setFont(UIStyler.BODY_FONT);
+        categoryCombo.setBackground(Color.WHITE);
+        categoryCombo.setPreferredSize(new Dimension(220, 45));
+        categoryCombo.addActionListener(e -> {
+            if (!updatingCategories) {
+                filterCars();
+            }
+        });
+        
+        JButton refreshButton = new JButton("Refresh");
+        UIStyler.styleSecondaryButton(refreshButton);
+        refreshButton.addActionListener(e -> CarController.getInstance().refreshData());
+        
+        JPanel filterPanel = new JPanel(new BorderLayout(10, 0));
+        filterPanel.setOpaque(false);
+        filterPanel.add(categoryCombo, BorderLayout.CENTER);
+        filterPanel.add(refreshButton, BorderLayout.EAST);
+        topPanel.add(filterPanel, BorderLayout.EAST);
+        
         // Selected car banner (hidden initially)
         selectedCarBanner = new JPanel(new BorderLayout(10, 0));
         selectedCarBanner.setBackground(UIStyler.PRIMARY_BLUE);
@@ -123,11 +156,10 @@ public class CarsPanel extends JPanel {
         
         add(northPanel, BorderLayout.NORTH);
         
-        // Cars grid
-        carsGridPanel = new JPanel(new GridLayout(0, 3, 20, 20));
-        carsGridPanel.setBackground(UIStyler.BACKGROUND_LIGHT);
+        // Cars grid (only the cards in view are realized)
+        carsGrid = new VirtualCarGrid(this::selectCar);
         
-        JScrollPane scrollPane = new JScrollPane(carsGridPanel);
+        JScrollPane scrollPane = new JScrollPane(carsGrid);
         scrollPane.setBorder(null);
         scrollPane.setBackground(UIStyler.BACKGROUND_LIGHT);
         scrollPane.getViewport().setBackground(UIStyler.BACKGROUND_LIGHT);
@@ -159,191 +191,178 @@ public class CarsPanel extends JPanel {
         add(bottomPanel, BorderLayout.SOUTH);
     }
     
-    private void loadCars() {
-        List<Car> cars = CarController.getInstance().getAllCars();
-        displayCars(cars);
+    /**
+     * Opens the catalog and gets its car list off the EDT, so the panel is
+     * shown before the data (or the database) is ready. In database mode the
+     * list is only counted here; the grid reads the pages it shows.
+     */
+    private class CatalogLoader extends SwingWorker<List<Car>, Void> {
+        
+        private CarFacets facets;
+        
+        @Override
+        @SuppressWarnings("try") // the startup phase is only opened and closed
+        protected List<Car> doInBackground() {
+            List<Car> cars;
+            try (StartupTrace.Phase phase = StartupTrace.phase("Car catalog")) {
+                CarController controller = CarController.getInstance();
+                controller.addCatalogListener(change -> {
+                    // Looked up on the thread that made the change, not on the EDT
+                    Map<Integer, Car> changedCars = findChangedCars(change);
+                    SwingUtilities.invokeLater(() -> applyCatalogChange(change, changedCars));
+                });
+                facets = controller.getFacets("");
+                cars = controller.getAllCars();
+            }
+            
+            // Warm the thumbnail caches for every distinct image in the background
+            thumbnails.preload(CarController.getInstance().getImagePaths(),
+                VirtualCarGrid.THUMBNAIL_WIDTH, VirtualCarGrid.THUMBNAIL_HEIGHT);
+            return cars;
+        }
+        
+        @Override
+        protected void done() {
+            try {
+                List<Car> cars = get();
+                updateCategoryCounts(facets);
+                displayCars(cars);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                System.err.println("Error loading cars: " + e.getCause().getMessage());
+            }
+            // The user may have started searching while the catalog was loading
+            if (!getSearchQuery().isEmpty()) {
+                filterCars();
+            }
+        }
     }
     
+    /**
+     * Rerun the current search in the background and show the result
+     */
     private void filterCars() {
+        searchPipeline.submitNow(getSearchQuery(), getSelectedCategory());
+    }
+    
+    private void showSearchResult(CarFacets facets, List<Car> cars) {
+        updateCategoryCounts(facets);
+        displayCars(cars);
+    }
+    
+    private String getSearchQuery() {
         String query = searchField.getText();
-        if (query.equals("Search by make, model, or type...")) {
-            query = "";
+        return query.equals("Search by make, model, or type...") ? "" : query;
+    }
+    
+    private String getSelectedCategory() {
+        int index = categoryCombo.getSelectedIndex();
+        return index > 0 ? categoryValues.get(index) : "All";
+    }
+    
+    /**
+     * Repopulate the category filter with counts, keeping the current selection
+     */
+    private void updateCategoryCounts(CarFacets facets) {
+        String selected = getSelectedCategory();
+        updatingCategories = true;
+        try {
+            categoryCombo.removeAllItems();
+            categoryValues.clear();
+            categoryValues.add("All");
+            categoryCombo.addItem(CarFacets.formatLabel("All", facets.getTotal()));
+            int selectedIndex = 0;
+            for (Map.Entry<String, Integer> entry : facets.getCategoryCounts().entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(selected)) {
+                    selectedIndex = categoryValues.size();
+                }
+                categoryValues.add(entry.getKey());
+                categoryCombo.addItem(CarFacets.formatLabel(entry.getKey(), entry.getValue()));
+            }
+            if (selectedIndex == 0 && !selected.equals("All")) {
+                // Keep the chosen category visible even when the search has no matches in it
+                selectedIndex = categoryValues.size();
+                categoryValues.add(selected);
+                categoryCombo.addItem(CarFacets.formatLabel(selected, 0));
+            }
+            categoryCombo.setSelectedIndex(selectedIndex);
+        } finally {
+            updatingCategories = false;
         }
-        List<Car> cars = CarController.getInstance().searchCars(query);
-        displayCars(cars);
     }
     
     private void displayCars(List<Car> cars) {
-        carsGridPanel.removeAll();
-        
-        for (Car car : cars) {
-            JPanel carCard = createCarCard(car);
-            carsGridPanel.add(carCard);
+        carsGrid.setCars(cars);
+    }
+    
+    /**
+     * Load the new versions of changed cars when the change only edits
+     * existing cars, or null when it adds or removes cars or is too large
+     */
+    private static Map<Integer, Car> findChangedCars(CarCatalogChange change) {
+        int[] changedIds = change.getChangedIds();
+        if (change.getAddedIds().length > 0 || change.getRemovedIds().length > 0
+                || changedIds.length > MAX_IN_PLACE_CHANGES) {
+            return null;
         }
-        
-        carsGridPanel.revalidate();
-        carsGridPanel.repaint();
+        CarController controller = CarController.getInstance();
+        Map<Integer, Car> changedCars = new HashMap<>();
+        for (int id : changedIds) {
+            Car car = controller.getCarById(id);
+            if (car == null) {
+                return null; // Removed again since the change
+            }
+            changedCars.put(id, car);
+        }
+        return changedCars;
     }
     
-    private JPanel createCarCard(Car car) {
-        JPanel card = new JPanel();
-        card.setLayout(new BorderLayout(0, 10));
-        card.setBackground(Color.WHITE);
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(UIStyler.BORDER_COLOR, 1),
-            BorderFactory.createEmptyBorder(0, 0, 15, 0)
-        ));
-        card.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        // Image panel with year badge
-        JPanel imagePanel = new JPanel(new BorderLayout());
-        imagePanel.setBackground(UIStyler.BACKGROUND_LIGHT);
-        imagePanel.setPreferredSize(new Dimension(300, 180));
-        
-        // Load car image
-        JLabel imageLabel = new JLabel("", SwingConstants.CENTER);
-        imageLabel.setFont(new Font("Segoe UI", Font.BOLD, 48));
-        imageLabel.setForeground(UIStyler.TEXT_SECONDARY);
-        
-        // Try to load the actual image
-        String imagePath = car.getImagePath();
-        if (imagePath != null && !imagePath.isEmpty()) {
-            try {
-                // Load from resources folder
-                URL imageUrl = getClass().getResource("/resources/images/" + imagePath);
-                if (imageUrl != null) {
-                    BufferedImage originalImage = ImageIO.read(imageUrl);
-                    // Scale image to fit panel
-                    Image scaledImage = originalImage.getScaledInstance(290, 170, Image.SCALE_SMOOTH);
-                    imageLabel.setIcon(new ImageIcon(scaledImage));
-                    imageLabel.setText(""); // Clear placeholder text
+    /**
+     * Follow the selected car through a catalog change and update the grid.
+     * Edits of existing cars are rebound in place when they cannot change
+     * which cars are listed (no search or category filter and no category
+     * moved); only the cards of changed cars in view are redrawn. Anything
+     * else, and every change in database mode, where the list is paged and
+     * a new search only reads the pages in view, reruns the current search.
+     */
+    private void applyCatalogChange(CarCatalogChange change, Map<Integer, Car> changedCars) {
+        if (selectedCar != null) {
+            int id = selectedCar.getId();
+            if (contains(change.getRemovedIds(), id)) {
+                clearSelection();
+            } else if (contains(change.getChangedIds(), id)) {
+                Car current = changedCars != null ? changedCars.get(id) : CarController.getInstance().getCarById(id);
+                if (current == null) {
+                    clearSelection();
                 } else {
-                    // Fallback to initials if image not found
-                    imageLabel.setText(car.getMake().charAt(0) + "" + car.getModel().charAt(0));
+                    selectedCar = current;
+                    selectedCarLabel.setText(current.getFullName() + " Selected");
                 }
-            } catch (Exception e) {
-                // Fallback to initials on error
-                imageLabel.setText(car.getMake().charAt(0) + "" + car.getModel().charAt(0));
             }
-        } else {
-            // No image path, show initials
-            imageLabel.setText(car.getMake().charAt(0) + "" + car.getModel().charAt(0));
         }
-        imagePanel.add(imageLabel, BorderLayout.CENTER);
-        
-        // Year badge
-        JLabel yearBadge = new JLabel(" " + car.getYear() + " ");
-        yearBadge.setFont(UIStyler.SMALL_FONT);
-        yearBadge.setBackground(Color.WHITE);
-        yearBadge.setOpaque(true);
-        yearBadge.setBorder(BorderFactory.createEmptyBorder(3, 8, 3, 8));
-        
-        JPanel badgeWrapper = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        badgeWrapper.setOpaque(false);
-        badgeWrapper.add(yearBadge);
-        imagePanel.add(badgeWrapper, BorderLayout.SOUTH);
-        
-        // Selection indicator
-        JLabel selectIndicator = new JLabel();
-        selectIndicator.setName("selectIndicator");
-        if (selectedCar != null && selectedCar.getId() == car.getId()) {
-            selectIndicator.setText("✓");
-            selectIndicator.setForeground(Color.WHITE);
-            selectIndicator.setBackground(UIStyler.PRIMARY_BLUE);
-            selectIndicator.setOpaque(true);
-            selectIndicator.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-            card.setBorder(BorderFactory.createLineBorder(UIStyler.PRIMARY_BLUE, 3));
+        if (changedCars == null || CarController.getInstance().isDatabaseMode()
+                || !getSearchQuery().isEmpty() || !getSelectedCategory().equals("All")) {
+            filterCars();
+            return;
         }
-        
-        JPanel indicatorWrapper = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        indicatorWrapper.setOpaque(false);
-        indicatorWrapper.add(selectIndicator);
-        imagePanel.add(indicatorWrapper, BorderLayout.NORTH);
-        
-        card.add(imagePanel, BorderLayout.NORTH);
-        
-        // Info panel
-        JPanel infoPanel = new JPanel();
-        infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
-        infoPanel.setBackground(Color.WHITE);
-        infoPanel.setBorder(BorderFactory.createEmptyBorder(5, 15, 5, 15));
-        
-        JLabel nameLabel = new JLabel(car.getFullName());
-        nameLabel.setFont(UIStyler.SUBHEADER_FONT);
-        nameLabel.setForeground(UIStyler.TEXT_DARK);
-        nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        JLabel categoryLabel = new JLabel(car.getCategory());
-        categoryLabel.setFont(UIStyler.SMALL_FONT);
-        categoryLabel.setForeground(UIStyler.TEXT_SECONDARY);
-        categoryLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        // Tags panel
-        JPanel tagsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
-        tagsPanel.setBackground(Color.WHITE);
-        tagsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        JLabel mpgTag = createTag(car.getMpg() + " MPG");
-        JLabel colorTag = createTag(car.getColor());
-        
-        tagsPanel.add(mpgTag);
-        tagsPanel.add(colorTag);
-        
-        // Price
-        JLabel priceLabel = new JLabel(FormatUtils.formatCurrency(car.getPrice()));
-        priceLabel.setFont(UIStyler.HEADER_FONT);
-        priceLabel.setForeground(UIStyler.PRIMARY_BLUE);
-        priceLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        infoPanel.add(nameLabel);
-        infoPanel.add(Box.createVerticalStrut(3));
-        infoPanel.add(categoryLabel);
-        infoPanel.add(Box.createVerticalStrut(8));
-        infoPanel.add(tagsPanel);
-        infoPanel.add(Box.createVerticalStrut(8));
-        infoPanel.add(priceLabel);
-        
-        card.add(infoPanel, BorderLayout.CENTER);
-        
-        // Click handler
-        card.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                selectCar(car);
-            }
-            
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                if (selectedCar == null || selectedCar.getId() != car.getId()) {
-                    card.setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(UIStyler.PRIMARY_BLUE, 2),
-                        BorderFactory.createEmptyBorder(0, 0, 14, 0)
-                    ));
-                }
-            }
-            
-            @Override
-            public void mouseExited(MouseEvent e) {
-                if (selectedCar == null || selectedCar.getId() != car.getId()) {
-                    card.setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(UIStyler.BORDER_COLOR, 1),
-                        BorderFactory.createEmptyBorder(0, 0, 15, 0)
-                    ));
-                }
+        for (Car old : carsGrid.updateCars(changedCars)) {
+            Car current = changedCars.get(old.getId());
+            if (!Objects.equals(old.getCategory(), current.getCategory())) {
+                // The category counts moved
+                filterCars();
+                return;
             }
-        });
-        
-        return card;
+        }
     }
     
-    private JLabel createTag(String text) {
-        JLabel tag = new JLabel(text);
-        tag.setFont(UIStyler.SMALL_FONT);
-        tag.setForeground(UIStyler.TEXT_SECONDARY);
-        tag.setBackground(UIStyler.BACKGROUND_LIGHT);
-        tag.setOpaque(true);
-        tag.setBorder(BorderFactory.createEmptyBorder(3, 8, 3, 8));
-        return tag;
+    private static boolean contains(int[] ids, int id) {
+        for (int candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
     }
     
     private void selectCar(Car car) {
@@ -357,7 +376,7 @@ public class CarsPanel extends JPanel {
         continueButton.setEnabled(true);
         
         // Refresh display
-        filterCars();
+        carsGrid.setSelectedId(car.getId());
     }
     
     private void continueToCalculator() {
@@ -374,6 +393,6 @@ public class CarsPanel extends JPanel {
         selectedCar = null;
         selectedCarBanner.setVisible(false);
         continueButton.setEnabled(false);
-        filterCars();
+        carsGrid.setSelectedId(-1);
     }
 }
@@ -1,9 +1,13 @@
 package com.vismera.views;
 
 import com.vismera.models.Car;
+import com.vismera.utils.EdtWatchdog;
+import com.vismera.utils.StartupTrace;
 import com.vismera.utils.UIStyler;
 import java.awt.*;
 import java.awt.event.*;
+import java.time.Duration;
+import java.time.Instant;
 import javax.swing.*;
 
 /**
@@ -12,10 +16,12 @@ import javax.swing.*;
  */
 public class MainFrame extends JFrame {
     
+    private static final int TRAINING_SETTLE_MILLIS = 3000;
+    
     private CardLayout cardLayout;
     private JPanel contentPanel;
     
-    // Panels
+    // Panels, created on first navigation
     private CarsPanel carsPanel;
     private CalculatePanel calculatePanel;
     
@@ -24,6 +30,7 @@ public class MainFrame extends JFrame {
     private JButton carsNavBtn;
     
     private String currentPanel = "cars";
+    private boolean firstFramePainted;
     
     public MainFrame() {
         super("Vismerá Inc. - Auto Loan Calculator Pro");
@@ -50,13 +57,6 @@ public class MainFrame extends JFrame {
         contentPanel = new JPanel(cardLayout);
         contentPanel.setBackground(UIStyler.BACKGROUND_LIGHT);
         
-        // Create panels
-        carsPanel = new CarsPanel(this);
-        calculatePanel = new CalculatePanel(this);
-                
-        contentPanel.add(carsPanel, "cars");
-        contentPanel.add(calculatePanel, "calculate");
-        
         add(contentPanel, BorderLayout.CENTER);
         
         // Show cars panel by default
@@ -181,20 +181,83 @@ public class MainFrame extends JFrame {
         }
     }
     
+    /**
+     * Create a panel the first time it is shown, so startup only pays for
+     * the panel the user sees
+     */
+    @SuppressWarnings("try") // startup phases are only opened and closed
+    private void ensurePanel(String panelName) {
+        switch (panelName) {
+            case "calculate":
+                if (calculatePanel == null) {
+                    try (StartupTrace.Phase phase = StartupTrace.phase("Calculate panel")) {
+                        calculatePanel = new CalculatePanel(this);
+                    }
+                    contentPanel.add(calculatePanel, "calculate");
+                }
+                break;
+            case "cars":
+                if (carsPanel == null) {
+                    try (StartupTrace.Phase phase = StartupTrace.phase("Cars panel")) {
+                        carsPanel = new CarsPanel(this);
+                    }
+                    contentPanel.add(carsPanel, "cars");
+                }
+                break;
+        }
+    }
+    
     public void showPanel(String panelName) {
+        ensurePanel(panelName);
         currentPanel = panelName;
         cardLayout.show(contentPanel, panelName);
         updateNavButtons();
     }
     
     public void showCalculatePanel(Car selectedCar) {
+        ensurePanel("calculate");
         calculatePanel.setSelectedCar(selectedCar);
         showPanel("calculate");
     }
     
+    // ==================== STARTUP ====================
+    
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (!firstFramePainted) {
+            firstFramePainted = true;
+            SwingUtilities.invokeLater(this::firstFrameShown);
+        }
+    }
+    
+    /**
+     * Report the time to first frame with -Dvismera.startup.report=true.
+     * With -Dvismera.startup.training=true the app also opens every panel
+     * and exits, which is the training run for the class data sharing
+     * archive (see the cds-archive target in build.xml).
+     */
+    private void firstFrameShown() {
+        StartupTrace.firstFrameShown();
+        boolean training = Boolean.getBoolean("vismera.startup.training");
+        if (training || Boolean.getBoolean("vismera.startup.report")) {
+            ProcessHandle.current().info().startInstant().ifPresent(start -> System.out.println(
+                "Time to first frame: " + Duration.between(start, Instant.now()).toMillis() + " ms"));
+        }
+        if (training) {
+            showPanel("calculate");
+            showPanel("cars");
+            // Let the background catalog and thumbnail loads finish before exiting
+            Timer exitTimer = new Timer(TRAINING_SETTLE_MILLIS, e -> System.exit(0));
+            exitTimer.setRepeats(false);
+            exitTimer.start();
+        }
+    }
+    
+    @SuppressWarnings("try") // startup phases are only opened and closed
     public static void main(String[] args) {
         // Set look and feel
-        try {
+        try (StartupTrace.Phase phase = StartupTrace.phase("Look and feel")) {
             for (UIManager.LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
                 if ("Nimbus".equals(info.getName())) {
                     UIManager.setLookAndFeel(info.getClassName());
@@ -205,15 +268,33 @@ public class MainFrame extends JFrame {
             // Use default look and feel
         }
         
-        // Customize Nimbus colors
-        UIManager.put("control", UIStyler.BACKGROUND_LIGHT);
-        UIManager.put("nimbusBase", UIStyler.PRIMARY_BLUE);
-        UIManager.put("nimbusBlueGrey", UIStyler.BACKGROUND_LIGHT);
+        // Customize Nimbus colors (first use of UIStyler creates its fonts)
+        try (StartupTrace.Phase phase = StartupTrace.phase("UIStyler and Nimbus colors")) {
+            UIManager.put("control", UIStyler.BACKGROUND_LIGHT);
+            UIManager.put("nimbusBase", UIStyler.PRIMARY_BLUE);
+            UIManager.put("nimbusBlueGrey", UIStyler.BACKGROUND_LIGHT);
+        }
+        
+        // Time event dispatches; slow ones are logged with the EDT stack
+        if (!"false".equals(System.getProperty("vismera.edt.watchdog"))) {
+            try (StartupTrace.Phase phase = StartupTrace.phase("EDT watchdog")) {
+                EdtWatchdog watchdog = EdtWatchdog.getInstance();
+                watchdog.install();
+                if (Boolean.getBoolean("vismera.edt.report")) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> watchdog.dump(System.out)));
+                }
+            }
+        }
         
         // Launch application
         SwingUtilities.invokeLater(() -> {
-            MainFrame frame = new MainFrame();
-            frame.setVisible(true);
+            MainFrame frame;
+            try (StartupTrace.Phase phase = StartupTrace.phase("Main frame")) {
+                frame = new MainFrame();
+            }
+            try (StartupTrace.Phase phase = StartupTrace.phase("Show window")) {
+                frame.setVisible(true);
+            }
         });
     }
 }
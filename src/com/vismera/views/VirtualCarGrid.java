@@ -0,0 +1,433 @@
+package com.vismera.views;
+
+import com.vismera.models.Car;
+import com.vismera.utils.FormatUtils;
+import com.vismera.utils.ThumbnailCache;
+import com.vismera.utils.UIStyler;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.swing.*;
+import javax.swing.border.Border;
+
+/**
+ * Scrollable grid of car cards that only realizes the rows in view.
+ *
+ * The grid is sized for the whole list, but only the cards for the visible
+ * rows plus a small overscan exist as components. As the viewport moves,
+ * pooled cards are repositioned and bound to the cars now in view, so the
+ * component count stays constant no matter how many cars match. The grid is
+ * meant to be the view of a JScrollPane.
+ *
+ * @author Vismerá Inc.
+ */
+public class VirtualCarGrid extends JPanel implements Scrollable {
+
+    static final int THUMBNAIL_WIDTH = 290;
+    static final int THUMBNAIL_HEIGHT = 170;
+
+    private static final int COLUMNS = 3;
+    private static final int GAP = 20;
+    private static final int OVERSCAN_ROWS = 1;
+
+    private static final Border NORMAL_BORDER = BorderFactory.createCompoundBorder(
+        BorderFactory.createLineBorder(UIStyler.BORDER_COLOR, 1),
+        BorderFactory.createEmptyBorder(0, 0, 15, 0));
+    private static final Border HOVER_BORDER = BorderFactory.createCompoundBorder(
+        BorderFactory.createLineBorder(UIStyler.PRIMARY_BLUE, 2),
+        BorderFactory.createEmptyBorder(0, 0, 14, 0));
+    private static final Border SELECTED_BORDER = BorderFactory.createLineBorder(UIStyler.PRIMARY_BLUE, 3);
+
+    private final ThumbnailCache thumbnails = ThumbnailCache.getInstance();
+    private final List<CarCard> pool = new ArrayList<>();
+    private final Consumer<Car> selectionListener;
+    private List<Car> cars = Collections.emptyList();
+    private int selectedId = -1;
+    private int cardHeight;
+    private int firstBoundIndex = -1;
+    private int lastBoundIndex = -1;
+
+    /**
+     * Create a grid that reports card clicks to the given listener
+     */
+    public VirtualCarGrid(Consumer<Car> selectionListener) {
+        super(null);
+        this.selectionListener = selectionListener;
+        setBackground(UIStyler.BACKGROUND_LIGHT);
+    }
+
+    // ==================== DATA ====================
+
+    /**
+     * Show the given cars. Only the visible cards are rebound.
+     */
+    public void setCars(List<Car> cars) {
+        this.cars = cars;
+        invalidateBindings();
+        layoutVisibleCards();
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Replace cars in the list by ID, rebinding only the cards of those in
+     * view. IDs not in the list are ignored.
+     * @return the cars that were replaced
+     */
+    public List<Car> updateCars(Map<Integer, Car> updated) {
+        List<Car> replaced = new ArrayList<>();
+        List<Car> next = null;
+        for (int index = 0; index < cars.size(); index++) {
+            Car listed = cars.get(index);
+            Car car = listed != null ? updated.get(listed.getId()) : null;
+            if (car == null) {
+                continue;
+            }
+            if (next == null) {
+                // The list may be a read-only catalog view
+                next = new ArrayList<>(cars);
+            }
+            replaced.add(next.set(index, car));
+            if (index >= firstBoundIndex && index <= lastBoundIndex && firstBoundIndex >= 0) {
+                CarCard card = pool.get(index % (lastBoundIndex - firstBoundIndex + 1));
+                card.bind(car, car.getId() == selectedId);
+                card.validate();
+            }
+        }
+        if (next != null) {
+            cars = next;
+            repaint();
+        }
+        return replaced;
+    }
+
+    /**
+     * Highlight the car with the given ID, or none when -1
+     */
+    public void setSelectedId(int selectedId) {
+        if (this.selectedId != selectedId) {
+            this.selectedId = selectedId;
+            invalidateBindings();
+            layoutVisibleCards();
+            repaint();
+        }
+    }
+
+    /**
+     * Get the number of card components currently realized
+     */
+    public int getRealizedCardCount() {
+        return pool.size();
+    }
+
+    // ==================== LAYOUT ====================
+
+    @Override
+    public Dimension getPreferredSize() {
+        int rows = (cars.size() + COLUMNS - 1) / COLUMNS;
+        int width = COLUMNS * 300 + (COLUMNS - 1) * GAP;
+        int height = rows == 0 ? 0 : rows * (getCardHeight() + GAP) - GAP;
+        return new Dimension(width, height);
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        boolean resized = width != getWidth() || height != getHeight();
+        super.setBounds(x, y, width, height);
+        // The viewport scrolls by moving this component, so rebind on every move
+        if (resized) {
+            invalidateBindings();
+        }
+        layoutVisibleCards();
+    }
+
+    @Override
+    public void doLayout() {
+        layoutVisibleCards();
+    }
+
+    /**
+     * Bind pooled cards to the rows in view plus overscan and position them
+     */
+    private void layoutVisibleCards() {
+        // Outside a viewport the whole grid would count as visible
+        Rectangle visible = getParent() instanceof JViewport ? getVisibleRect() : new Rectangle();
+        if (cars.isEmpty() || visible.height <= 0 || getWidth() <= 0) {
+            ensurePoolSize(0);
+            firstBoundIndex = -1;
+            lastBoundIndex = -1;
+            return;
+        }
+        int rowHeight = getCardHeight() + GAP;
+        int rows = (cars.size() + COLUMNS - 1) / COLUMNS;
+        int firstRow = Math.max(0, visible.y / rowHeight - OVERSCAN_ROWS);
+        int lastRow = Math.min(rows - 1, (visible.y + visible.height) / rowHeight + OVERSCAN_ROWS);
+        int first = firstRow * COLUMNS;
+        int last = Math.min(cars.size() - 1, (lastRow + 1) * COLUMNS - 1);
+        if (first == firstBoundIndex && last == lastBoundIndex) {
+            return;
+        }
+
+        int count = last - first + 1;
+        ensurePoolSize(count);
+        int cardWidth = (getWidth() - (COLUMNS - 1) * GAP) / COLUMNS;
+        for (int i = 0; i < count; i++) {
+            int index = first + i;
+            // Cards keep their slot modulo the pool size, so a scroll by one row
+            // only rebinds the cards that left the view
+            CarCard card = pool.get(index % count);
+            int row = index / COLUMNS;
+            int column = index % COLUMNS;
+            card.setBounds(column * (cardWidth + GAP), row * rowHeight, cardWidth, getCardHeight());
+            // A paged database list has no car where rows were deleted after it was counted
+            Car car = cars.get(index);
+            card.setVisible(car != null);
+            if (car != null) {
+                card.bind(car, car.getId() == selectedId);
+                card.validate();
+            }
+        }
+        firstBoundIndex = first;
+        lastBoundIndex = last;
+    }
+
+    private void ensurePoolSize(int count) {
+        while (pool.size() < count) {
+            CarCard card = new CarCard();
+            pool.add(card);
+            add(card);
+        }
+        while (pool.size() > count) {
+            remove(pool.remove(pool.size() - 1));
+        }
+    }
+
+    private void invalidateBindings() {
+        firstBoundIndex = -1;
+        lastBoundIndex = -1;
+        for (CarCard card : pool) {
+            card.boundCar = null;
+        }
+    }
+
+    /**
+     * Measure the card height once from a prototype card
+     */
+    private int getCardHeight() {
+        if (cardHeight == 0) {
+            CarCard prototype = new CarCard();
+            prototype.bind(new Car(0, "Make", "Model", 2024, "Category", "Color", 0, 0, ""), true);
+            cardHeight = prototype.getPreferredSize().height;
+        }
+        return cardHeight;
+    }
+
+    // ==================== SCROLLABLE ====================
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 40;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+
+    // ==================== CARD ====================
+
+    /**
+     * Reusable card component; bind() fills it with a car's details
+     */
+    private class CarCard extends JPanel {
+
+        private final JLabel imageLabel = new JLabel("", SwingConstants.CENTER);
+        private final JLabel yearBadge = new JLabel();
+        private final JLabel selectIndicator = new JLabel();
+        private final JLabel nameLabel = new JLabel();
+        private final JLabel categoryLabel = new JLabel();
+        private final JLabel mpgTag = createTag();
+        private final JLabel colorTag = createTag();
+        private final JLabel priceLabel = new JLabel();
+        private Car boundCar;
+        private boolean selected;
+
+        CarCard() {
+            setLayout(new BorderLayout(0, 10));
+            setBackground(Color.WHITE);
+            setBorder(NORMAL_BORDER);
+            setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+            // Image panel with year badge
+            JPanel imagePanel = new JPanel(new BorderLayout());
+            imagePanel.setBackground(UIStyler.BACKGROUND_LIGHT);
+            imagePanel.setPreferredSize(new Dimension(300, 180));
+
+            imageLabel.setFont(new Font("Segoe UI", Font.BOLD, 48));
+            imageLabel.setForeground(UIStyler.TEXT_SECONDARY);
+            imagePanel.add(imageLabel, BorderLayout.CENTER);
+
+            yearBadge.setFont(UIStyler.SMALL_FONT);
+            yearBadge.setBackground(Color.WHITE);
+            yearBadge.setOpaque(true);
+            yearBadge.setBorder(BorderFactory.createEmptyBorder(3, 8, 3, 8));
+
+            JPanel badgeWrapper = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            badgeWrapper.setOpaque(false);
+            badgeWrapper.add(yearBadge);
+            imagePanel.add(badgeWrapper, BorderLayout.SOUTH);
+
+            // Selection indicator
+            selectIndicator.setName("selectIndicator");
+            selectIndicator.setForeground(Color.WHITE);
+            selectIndicator.setBackground(UIStyler.PRIMARY_BLUE);
+            selectIndicator.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+
+            JPanel indicatorWrapper = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            indicatorWrapper.setOpaque(false);
+            indicatorWrapper.add(selectIndicator);
+            imagePanel.add(indicatorWrapper, BorderLayout.NORTH);
+
+            add(imagePanel, BorderLayout.NORTH);
+
+            // Info panel
+            JPanel infoPanel = new JPanel();
+            infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
+            infoPanel.setBackground(Color.WHITE);
+            infoPanel.setBorder(BorderFactory.createEmptyBorder(5, 15, 5, 15));
+
+            nameLabel.setFont(UIStyler.SUBHEADER_FONT);
+            nameLabel.setForeground(UIStyler.TEXT_DARK);
+            nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+            categoryLabel.setFont(UIStyler.SMALL_FONT);
+            categoryLabel.setForeground(UIStyler.TEXT_SECONDARY);
+            categoryLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+            JPanel tagsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+            tagsPanel.setBackground(Color.WHITE);
+            tagsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+            tagsPanel.add(mpgTag);
+            tagsPanel.add(colorTag);
+
+            priceLabel.setFont(UIStyler.HEADER_FONT);
+            priceLabel.setForeground(UIStyler.PRIMARY_BLUE);
+            priceLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+            infoPanel.add(nameLabel);
+            infoPanel.add(Box.createVerticalStrut(3));
+            infoPanel.add(categoryLabel);
+            infoPanel.add(Box.createVerticalStrut(8));
+            infoPanel.add(tagsPanel);
+            infoPanel.add(Box.createVerticalStrut(8));
+            infoPanel.add(priceLabel);
+
+            add(infoPanel, BorderLayout.CENTER);
+
+            // Click handler
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (boundCar != null) {
+                        selectionListener.accept(boundCar);
+                    }
+                }
+
+                @Override
+                public void mouseEntered(MouseEvent e) {
+                    if (!selected) {
+                        setBorder(HOVER_BORDER);
+                    }
+                }
+
+                @Override
+                public void mouseExited(MouseEvent e) {
+                    if (!selected) {
+                        setBorder(NORMAL_BORDER);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Show the given car; does nothing if the card already shows it
+         */
+        void bind(Car car, boolean selected) {
+            if (car == boundCar && selected == this.selected) {
+                return;
+            }
+            if (car != boundCar) {
+                boundCar = car;
+                bindImage(car);
+                yearBadge.setText(" " + car.getYear() + " ");
+                nameLabel.setText(car.getFullName());
+                categoryLabel.setText(car.getCategory());
+                mpgTag.setText(car.getMpg() + " MPG");
+                colorTag.setText(car.getColor());
+                priceLabel.setText(FormatUtils.formatCurrency(car.getPrice()));
+            }
+            this.selected = selected;
+            selectIndicator.setText(selected ? "✓" : "");
+            selectIndicator.setOpaque(selected);
+            setBorder(selected ? SELECTED_BORDER : NORMAL_BORDER);
+        }
+
+        /**
+         * Show the cached thumbnail, or the initials until it loads. A late
+         * thumbnail is dropped if the card was rebound in the meantime.
+         */
+        private void bindImage(Car car) {
+            String imagePath = car.getImagePath();
+            BufferedImage thumbnail = thumbnails.getIfCached(imagePath, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+            if (thumbnail != null) {
+                imageLabel.setIcon(new ImageIcon(thumbnail));
+                imageLabel.setText("");
+                return;
+            }
+            imageLabel.setIcon(null);
+            imageLabel.setText(car.getMake().charAt(0) + "" + car.getModel().charAt(0));
+            if (imagePath != null && !imagePath.isEmpty()) {
+                thumbnails.load(imagePath, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT).thenAccept(image -> {
+                    if (image != null) {
+                        SwingUtilities.invokeLater(() -> {
+                            if (boundCar == car) {
+                                imageLabel.setIcon(new ImageIcon(image));
+                                imageLabel.setText("");
+                            }
+                        });
+                    }
+                });
+            }
+        }
+    }
+
+    private static JLabel createTag() {
+        JLabel tag = new JLabel();
+        tag.setFont(UIStyler.SMALL_FONT);
+        tag.setForeground(UIStyler.TEXT_SECONDARY);
+        tag.setBackground(UIStyler.BACKGROUND_LIGHT);
+        tag.setOpaque(true);
+        tag.setBorder(BorderFactory.createEmptyBorder(3, 8, 3, 8));
+        return tag;
+    }
+}